@@ -0,0 +1,66 @@
+package com.game;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Ein Free-for-all-Tick mit Bots, mit und ohne Raster.
+ * Die Runde startet alle 5 Sekunden neu, damit die Arena voll bleibt -
+ * sonst misst man hauptsächlich Ticks, in denen kaum noch jemand steht.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BrawlBenchmark {
+    private static final int ROUND_TICKS = 5 * MatchSimulation.TICKS_PER_SECOND;
+
+    @Param({"2", "8", "32", "64"})
+    public int fighters;
+
+    @Param({"true", "false"})
+    public boolean broadphase;
+
+    private BrawlSimulation brawl;
+    private ScriptedController[] bots;
+    private int[] inputs;
+
+    @Setup
+    public void setup() {
+        String[] names = Archetypes.get().names().toArray(String[]::new);
+        String[] types = new String[fighters];
+        bots = new ScriptedController[fighters];
+        for (int i = 0; i < fighters; i++) {
+            types[i] = names[i % names.length];
+            bots[i] = new ScriptedController(new Random(i));
+        }
+        brawl = new BrawlSimulation(types);
+        brawl.setBroadphase(broadphase);
+        inputs = new int[fighters];
+    }
+
+    @Benchmark
+    public long tick() {
+        if (brawl.isGameOver() || brawl.getTick() == ROUND_TICKS) {
+            brawl.reset();
+        }
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = bots[i].nextInput(brawl, i);
+        }
+        brawl.step(inputs);
+        return brawl.getTick();
+    }
+}
@@ -0,0 +1,98 @@
+package com.game;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks für den Kampf-Pfad.
+ * Jeder Treffer-Benchmark kopiert vorher ein Match, in dem beide Kämpfer
+ * schon in Reichweite stehen - sonst würde ab dem zweiten Aufruf nur noch
+ * der Cooldown gemessen. {@link #copyOnly()} zeigt, was die Kopie selbst kostet.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CombatBenchmark {
+
+    private MatchSimulation meleeTemplate;
+    private MatchSimulation meleeMatch;
+    private MatchSimulation rangedTemplate;
+    private MatchSimulation rangedMatch;
+    private MatchSimulation cooldownMatch;
+
+    @Setup
+    public void setup() {
+        meleeTemplate = inRange("Warrior", "Knight");
+        meleeMatch = new MatchSimulation("Warrior", "Knight");
+        rangedTemplate = inRange("Wizard", "Knight");
+        rangedMatch = new MatchSimulation("Wizard", "Knight");
+
+        // Attacker that has just hit and now sits on its cooldown
+        cooldownMatch = new MatchSimulation("Warrior", "Knight");
+        cooldownMatch.copyFrom(meleeTemplate);
+        cooldownMatch.getPlayer1().attack(cooldownMatch.getPlayer2(), false, cooldownMatch.getTick());
+    }
+
+    /**
+     * Lässt beide Kämpfer aufeinander zulaufen bis Spieler 1 treffen kann.
+     */
+    private static MatchSimulation inRange(String attacker, String target) {
+        MatchSimulation match = new MatchSimulation(attacker, target);
+        Fighter a = match.getPlayer1();
+        Fighter t = match.getPlayer2();
+        while (Math.abs(a.getCenterX() - t.getCenterX()) > a.getAttackRange() - 10) {
+            match.step(MatchSimulation.INPUT_RIGHT, MatchSimulation.INPUT_LEFT);
+        }
+        return match;
+    }
+
+    @Benchmark
+    public MatchSimulation copyOnly() {
+        meleeMatch.copyFrom(meleeTemplate);
+        return meleeMatch;
+    }
+
+    @Benchmark
+    public boolean fighterAttackHit() {
+        meleeMatch.copyFrom(meleeTemplate);
+        return meleeMatch.getPlayer1().attack(meleeMatch.getPlayer2(), false, meleeMatch.getTick());
+    }
+
+    @Benchmark
+    public boolean fighterAttackOnCooldown() {
+        return cooldownMatch.getPlayer1().attack(cooldownMatch.getPlayer2(), false, cooldownMatch.getTick());
+    }
+
+    @Benchmark
+    public int handleAttackMelee() {
+        meleeMatch.copyFrom(meleeTemplate);
+        meleeMatch.handleAttack(meleeMatch.getPlayer1(), meleeMatch.getPlayer2(), false);
+        return meleeMatch.getPlayer2().getHealth();
+    }
+
+    @Benchmark
+    public int handleAttackMeleeSpecial() {
+        meleeMatch.copyFrom(meleeTemplate);
+        meleeMatch.handleAttack(meleeMatch.getPlayer1(), meleeMatch.getPlayer2(), true);
+        return meleeMatch.getPlayer2().getHealth();
+    }
+
+    @Benchmark
+    public int handleAttackRanged() {
+        rangedMatch.copyFrom(rangedTemplate);
+        rangedMatch.handleAttack(rangedMatch.getPlayer1(), rangedMatch.getPlayer2(), false);
+        return rangedMatch.getPlayer2().getHealth();
+    }
+}
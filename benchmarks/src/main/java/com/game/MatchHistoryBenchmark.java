@@ -0,0 +1,83 @@
+package com.game;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks für die Match-Historie: Abfragen und Neuberechnung der Wertung über Millionen Matches.
+ * Die Historie liegt in einem eigenen Temp-Verzeichnis.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatchHistoryBenchmark {
+
+    @Param({"100000", "1000000", "5000000"})
+    private int matches;
+
+    private static final String[] CHARACTERS = {"Bishop", "Knight", "Magician", "Ninja"};
+
+    private Path directory;
+    private MatchHistory history;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("match-bench");
+        history = new MatchHistory(directory);
+        history.open();
+        Random random = new Random(42);
+        for (int i = 0; i < matches; i++) {
+            history.append(new MatchHistory.Match(System.currentTimeMillis(),
+                "Player" + random.nextInt(200), "Player" + random.nextInt(200),
+                CHARACTERS[random.nextInt(CHARACTERS.length)], CHARACTERS[random.nextInt(CHARACTERS.length)],
+                random.nextInt(3), 600 + random.nextInt(3000), random.nextInt(100), random.nextInt(100),
+                random.nextInt(100), random.nextInt(100), true));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        history.close();
+        Files.deleteIfExists(directory.resolve("matches.bin"));
+        Files.deleteIfExists(directory.resolve("matches.names"));
+        Files.deleteIfExists(directory.resolve("matches.characters"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public MatchHistory.Stats characterMatchup() {
+        return history.characterMatchup("Ninja", "Magician");
+    }
+
+    @Benchmark
+    public MatchHistory.Stats headToHead() {
+        return history.headToHead("Player7", "Player13");
+    }
+
+    /** Komplette Neuberechnung der Elo-Wertung aus der Historie */
+    @Benchmark
+    public Ratings recomputeRatings() {
+        Ratings ratings = new Ratings();
+        ratings.recompute(history);
+        return ratings;
+    }
+}
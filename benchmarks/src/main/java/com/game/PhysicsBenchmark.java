@@ -0,0 +1,79 @@
+package com.game;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks für die Physik und einen kompletten Simulationsschritt.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PhysicsBenchmark {
+
+    /** Ein paar Sekunden typischer Eingaben: laufen, springen, angreifen */
+    private static final int[] P1_INPUTS = scriptedInputs(MatchSimulation.INPUT_RIGHT);
+    private static final int[] P2_INPUTS = scriptedInputs(MatchSimulation.INPUT_LEFT);
+
+    private Fighter grounded;
+    private Fighter jumper;
+    private MatchSimulation match;
+    private long tick;
+    private int input;
+
+    @Setup
+    public void setup() {
+        grounded = new Fighter("Ninja", 200);
+        jumper = new Fighter("Ninja", 200);
+        match = new MatchSimulation("Ninja", "Wizard");
+    }
+
+    private static int[] scriptedInputs(int towardsEnemy) {
+        int[] inputs = new int[240];
+        for (int i = 0; i < inputs.length; i++) {
+            int in = towardsEnemy;
+            if (i % 45 == 0) in |= MatchSimulation.INPUT_JUMP;
+            if (i % 7 == 0) in |= MatchSimulation.INPUT_ATTACK;
+            if (i % 97 == 0) in |= MatchSimulation.INPUT_SPECIAL;
+            inputs[i] = in;
+        }
+        return inputs;
+    }
+
+    @Benchmark
+    public double fighterUpdateGrounded() {
+        grounded.update(++tick);
+        return grounded.getY();
+    }
+
+    @Benchmark
+    public double fighterUpdateJumping() {
+        if (!jumper.isJumping()) {
+            jumper.jump();
+        }
+        jumper.update(++tick);
+        return jumper.getY();
+    }
+
+    @Benchmark
+    public long matchStep() {
+        int i = input++ % P1_INPUTS.length;
+        match.step(P1_INPUTS[i], P2_INPUTS[i]);
+        if (match.isGameOver()) {
+            match.reset();
+        }
+        return match.getTick();
+    }
+}
@@ -0,0 +1,86 @@
+package com.game;
+
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks für die Spielerdatenbank.
+ * Läuft gegen ein eigenes Temp-Verzeichnis statt ~/GameData,
+ * damit die echten Spielstände nicht überschrieben werden.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlayerDataBenchmark {
+
+    /** Realistisch (ein Kiosk-Abend), groß und riesig */
+    @Param({"20", "100000", "1000000"})
+    private int players;
+
+    private String[] names;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        // Must happen before PlayerData is initialized - it reads user.home once
+        Path home = Files.createTempDirectory("game-bench");
+        System.setProperty("user.home", home.toString());
+
+        names = new String[players];
+        Map<String, Integer> wins = new HashMap<>();
+        for (int i = 0; i < players; i++) {
+            names[i] = "Player" + i;
+            wins.put(names[i], i % 50);
+        }
+        Path saveFile = home.resolve("GameData").resolve("players.json");
+        Files.createDirectories(saveFile.getParent());
+        try (Writer writer = Files.newBufferedWriter(saveFile)) {
+            new Gson().toJson(wins, writer);
+        }
+        PlayerData.loadData();
+    }
+
+    @Benchmark
+    public int addWin() {
+        String name = names[next++ % names.length];
+        PlayerData.addWin(name);
+        return next;
+    }
+
+    /** addWin speichert im Hintergrund - das Schreiben selbst wird hier gemessen */
+    @Benchmark
+    public void saveData() {
+        PlayerData.saveData();
+    }
+
+    @Benchmark
+    public List<Map.Entry<String, Integer>> getTopPlayers() {
+        return PlayerData.getTopPlayers(3);
+    }
+
+    @Benchmark
+    public int getRank() {
+        return PlayerData.getRank(names[next++ % names.length]);
+    }
+}
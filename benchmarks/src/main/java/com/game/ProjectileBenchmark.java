@@ -0,0 +1,58 @@
+package com.game;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks für die Projektile: ein Tick mit vielen Projektilen in der Luft
+ * (die Kämpfer stehen dabei nur herum) und die Kopie für den Rollback.
+ * Mit -prof gc sieht man, dass dabei nichts angelegt wird.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProjectileBenchmark {
+
+    @Param({"100", "500", "1024"})
+    public int projectiles;
+
+    private MatchSimulation template;
+    private MatchSimulation match;
+
+    @Setup
+    public void setup() {
+        template = new MatchSimulation("Wizard", "Wizard");
+        match = new MatchSimulation("Wizard", "Wizard");
+        // Hovering above the fighters' heads - they neither hit nor expire, so every tick tests all of them
+        Projectiles pool = template.getProjectiles();
+        for (int i = 0; i < projectiles; i++) {
+            pool.spawn(i & 1, 10 + (i * 7) % 780, 20 + i % 100, 0, 0, 1, Integer.MAX_VALUE);
+        }
+        match.copyFrom(template);
+    }
+
+    @Benchmark
+    public int step() {
+        match.step(0, 0);
+        return match.getProjectiles().getCount();
+    }
+
+    @Benchmark
+    public MatchSimulation copyFrom() {
+        match.copyFrom(template);
+        return match;
+    }
+}
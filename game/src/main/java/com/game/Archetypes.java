@@ -0,0 +1,293 @@
+package com.game;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Die Charakterwerte als Tabelle: jeder Charakter hat eine Nummer (Archetyp),
+ * jeder Wert ein Array - gelesen wird im Kampf nur noch über den Index, ohne Strings.
+ *
+ * Die Werte kommen aus characters.json. Standardmäßig die mitgelieferte Datei,
+ * liegt eine in ~/GameData (oder unter -Dgame.characters=...), gilt die.
+ * Für Balancing-Sessions wird diese Datei überwacht: nach dem Speichern gilt die neue Tabelle
+ * ab dem nächsten Match bzw. Neustart der Runde - kein Neustart des Spiels nötig.
+ *
+ * Eine Tabelle ändert sich nie, neu laden heißt neue Tabelle. Kämpfer halten ihre Tabelle fest,
+ * ein laufendes Match rechnet also mit einheitlichen Werten weiter.
+ */
+public final class Archetypes {
+    /** Angriffsarten */
+    public static final byte MELEE = 0;
+    public static final byte RANGED = 1;
+
+    /** Unbekannte Charaktere werden wie gehabt zum Warrior */
+    private static final String FALLBACK = "Warrior";
+    private static final String BUNDLED = "/characters.json";
+    private static final Path OVERRIDE = Paths.get(System.getProperty("game.characters",
+        Paths.get(System.getProperty("user.home"), "GameData", "characters.json").toString()));
+    private static final Gson GSON = new Gson();
+
+    /** So steht ein Charakter in der Datei */
+    private record Definition(String name, String attack, int damage, double speed, double range,
+                              int defense, int attackSpeed, String description, Integer storyOrder) {}
+    private record Definitions(List<Definition> characters) {}
+
+    private static volatile Archetypes current = loadInitial();
+    private static Thread watcher;
+
+    private final String[] names;
+    private final Map<String, Integer> ids;
+    private final int fallback;
+    private final byte[] attackType;
+    private final int[] damage;
+    private final double[] speed;
+    private final double[] range;
+    private final int[] defense;
+    private final int[] attackSpeed;
+    private final String[] description;
+    /** Die Gegner im Story Mode, vom leichtesten zum schwersten */
+    private final List<String> storyLadder;
+    /** Prüfsumme über alles, was den Kampf beeinflusst, siehe {@link #checksum()} */
+    private final long checksum;
+
+    private Archetypes(List<Definition> definitions) {
+        int count = definitions.size();
+        names = new String[count];
+        ids = new HashMap<>();
+        attackType = new byte[count];
+        damage = new int[count];
+        speed = new double[count];
+        range = new double[count];
+        defense = new int[count];
+        attackSpeed = new int[count];
+        description = new String[count];
+        for (int id = 0; id < count; id++) {
+            Definition definition = definitions.get(id);
+            validate(definition);
+            if (ids.putIfAbsent(definition.name(), id) != null) {
+                throw new IllegalArgumentException("duplicate character " + definition.name());
+            }
+            names[id] = definition.name();
+            attackType[id] = definition.attack().equals("ranged") ? RANGED : MELEE;
+            damage[id] = definition.damage();
+            speed[id] = definition.speed();
+            range[id] = definition.range();
+            defense[id] = definition.defense();
+            attackSpeed[id] = definition.attackSpeed();
+            description[id] = definition.description() != null ? definition.description() : "";
+        }
+        fallback = ids.getOrDefault(FALLBACK, 0);
+        // Sorting is stable - characters without a storyOrder keep the file order, after all others
+        storyLadder = definitions.stream()
+            .sorted(Comparator.comparing(Definition::storyOrder, Comparator.nullsLast(Comparator.naturalOrder())))
+            .map(Definition::name)
+            .toList();
+        checksum = computeChecksum();
+    }
+
+    private long computeChecksum() {
+        long hash = names.length;
+        for (int id = 0; id < names.length; id++) {
+            hash = hash * 31 + names[id].hashCode();
+            hash = hash * 31 + attackType[id];
+            hash = hash * 31 + damage[id];
+            hash = hash * 31 + Double.doubleToLongBits(speed[id]);
+            hash = hash * 31 + Double.doubleToLongBits(range[id]);
+            hash = hash * 31 + defense[id];
+            hash = hash * 31 + attackSpeed[id];
+        }
+        return hash;
+    }
+
+    private static void validate(Definition definition) {
+        if (definition == null || definition.name() == null || definition.name().isBlank()) {
+            throw new IllegalArgumentException("character without a name");
+        }
+        String name = definition.name();
+        if (!"melee".equals(definition.attack()) && !"ranged".equals(definition.attack())) {
+            throw new IllegalArgumentException(name + ": attack must be \"melee\" or \"ranged\"");
+        }
+        if (definition.damage() < 0 || definition.speed() < 0 || definition.range() < 0
+                || definition.defense() < 0 || definition.attackSpeed() < 0) {
+            throw new IllegalArgumentException(name + ": stats must not be negative");
+        }
+    }
+
+    /**
+     * Übersetzt characters.json in eine Tabelle.
+     * @throws IllegalArgumentException wenn die Datei kaputt ist oder Werte fehlen
+     */
+    public static Archetypes parse(Reader json) {
+        Definitions definitions;
+        try {
+            definitions = GSON.fromJson(json, Definitions.class);
+        } catch (JsonParseException e) {
+            throw new IllegalArgumentException("invalid JSON: " + e.getMessage(), e);
+        }
+        if (definitions == null || definitions.characters() == null || definitions.characters().isEmpty()) {
+            throw new IllegalArgumentException("no characters defined");
+        }
+        return new Archetypes(definitions.characters());
+    }
+
+    /**
+     * Die aktuelle Tabelle.
+     */
+    public static Archetypes get() {
+        return current;
+    }
+
+    private static Archetypes loadInitial() {
+        if (Files.exists(OVERRIDE)) {
+            try {
+                return loadOverride();
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Ignoring " + OVERRIDE + ": " + e.getMessage());
+            }
+        }
+        try (InputStream in = Archetypes.class.getResourceAsStream(BUNDLED)) {
+            if (in == null) {
+                throw new IllegalStateException("missing resource " + BUNDLED);
+            }
+            return parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("cannot read " + BUNDLED, e);
+        }
+    }
+
+    private static Archetypes loadOverride() throws IOException {
+        try (Reader reader = Files.newBufferedReader(OVERRIDE, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    /**
+     * Lädt die überwachte Datei neu. Ist sie kaputt, bleibt die alte Tabelle.
+     * @return ob eine neue Tabelle gilt
+     */
+    public static boolean reload() {
+        if (!Files.exists(OVERRIDE)) {
+            return false;
+        }
+        try {
+            current = loadOverride();
+            System.err.println("Reloaded " + current.size() + " characters from " + OVERRIDE);
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Keeping the old characters, " + OVERRIDE + " is invalid: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Überwacht die Datei in ~/GameData und lädt sie nach jeder Änderung neu.
+     * Läuft als Daemon-Thread, mehrfaches Aufrufen schadet nicht.
+     */
+    public static synchronized void watch() {
+        if (watcher != null) {
+            return;
+        }
+        Path directory = OVERRIDE.toAbsolutePath().getParent();
+        try {
+            Files.createDirectories(directory);
+            WatchService service = FileSystems.getDefault().newWatchService();
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            watcher = new Thread(() -> watchLoop(service), "character-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        } catch (IOException e) {
+            System.err.println("Cannot watch " + OVERRIDE + " for changes: " + e.getMessage());
+        }
+    }
+
+    private static void watchLoop(WatchService service) {
+        Path file = OVERRIDE.getFileName();
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= file.equals(event.context());
+                }
+                key.reset();
+                if (changed) {
+                    // Editors write in several steps - wait until the file has settled
+                    Thread.sleep(200);
+                    for (WatchKey more = service.poll(); more != null; more = service.poll()) {
+                        more.pollEvents();
+                        more.reset();
+                    }
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+
+    /**
+     * Prüfsumme der Tabelle - nur über Namen, Reihenfolge und Kampfwerte, nicht über Beschreibungen.
+     * Zwei Rechner mit gleicher Prüfsumme rechnen dieselben Kämpfe.
+     */
+    public long checksum() {
+        return checksum;
+    }
+
+    /** Anzahl der Charaktere */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Nummer eines Charakters - nur beim Anlegen eines Kämpfers, nicht im Kampf selbst.
+     * Unbekannte Namen bekommen den Warrior.
+     */
+    public int id(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : fallback;
+    }
+
+    public boolean contains(String name) {
+        return ids.containsKey(name);
+    }
+
+    /**
+     * Alle Charaktere als Story-Gegner: erst nach "storyOrder" aus der Datei,
+     * Charaktere ohne kommen am Ende in der Reihenfolge der Datei dazu.
+     */
+    public List<String> storyLadder() {
+        return storyLadder;
+    }
+
+    /** Alle Charaktere in der Reihenfolge der Datei */
+    public List<String> names() {
+        return List.of(names);
+    }
+
+    public String name(int id) { return names[id]; }
+    public boolean isRanged(int id) { return attackType[id] == RANGED; }
+    public int damage(int id) { return damage[id]; }
+    public double speed(int id) { return speed[id]; }
+    public double range(int id) { return range[id]; }
+    public int defense(int id) { return defense[id]; }
+    public int attackSpeed(int id) { return attackSpeed[id]; }
+    public String description(int id) { return description[id]; }
+}
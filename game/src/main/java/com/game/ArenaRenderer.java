@@ -0,0 +1,41 @@
+package com.game;
+
+import javafx.scene.Node;
+
+/**
+ * Zeichnet eine laufende {@link MatchSimulation}.
+ * Die Arena kann zur Laufzeit zwischen den Varianten wechseln (F4),
+ * um z.B. auf schwachen Rechnern die Pulse-Zeiten zu vergleichen.
+ *
+ * Der aktive Renderer hört auf die {@link CombatEvents} des Matches und fasst
+ * Lebensanzeigen nur an, wenn es einen Treffer oder einen Reset gab.
+ */
+public interface ArenaRenderer extends CombatEvents.Listener {
+
+    /**
+     * Der Node mit der Spielfläche - die Arena hängt ihn unter ihre UI.
+     */
+    Node getNode();
+
+    /**
+     * Neues Match bzw. neue Kämpfer - wird auch nach einem Reset aufgerufen.
+     * Danach zeigt der Renderer den aktuellen Stand, ohne auf Ereignisse zu warten.
+     */
+    void setMatch(MatchSimulation simulation);
+
+    /**
+     * Text über den Lebensbalken (Name, Siege, Platz).
+     */
+    void setStats(String player1, String player2);
+
+    /**
+     * Zeichnet den aktuellen Zustand.
+     * @param alpha Anteil des angebrochenen Ticks für die Interpolation
+     */
+    void render(double alpha);
+
+    /**
+     * Kurzer Name für die Performance-Anzeige.
+     */
+    String getName();
+}
@@ -0,0 +1,269 @@
+package com.game;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * Lädt alle Bilder beim Start parallel im Hintergrund und packt sie in einen {@link SpriteAtlas}.
+ * Früher hat das erste Match das Laden ausgelöst und der UI-Thread stand so lange still -
+ * jetzt ist bis zur Charakterauswahl längst alles fertig.
+ *
+ * Die Bilder werden gleich beim Dekodieren auf Anzeigegröße gebracht und bekommen ihre
+ * Varianten (Umrandung, Angriff, Treffer) aus {@link SpriteVariants}. Der fertige Atlas
+ * landet in ~/GameData/cache - ab dem zweiten Start wird nur noch diese Datei gelesen.
+ *
+ * Fehlt ein Bild oder ist es kaputt, landet das in {@link #getFailures()} und der Kämpfer
+ * bekommt ein pinkes Ersatzbild, damit man den Fehler auch sieht.
+ */
+public final class AssetManager {
+    /**
+     * Ein Sprite: das gemeinsame Atlas-Bild und der Ausschnitt daraus.
+     * @param padding Rand rundum für die Umrandung - gehört nicht zur Kollisionsbox
+     */
+    public record Sprite(Image image, Rectangle2D region, double padding) {
+        /** Faktor, mit dem der Inhalt (ohne Rand) in die Kollisionsbox passt - 1 bei normalen Sprites */
+        public double scale() {
+            return Math.min(Fighter.WIDTH / (region.getWidth() - 2 * padding),
+                            Fighter.HEIGHT / (region.getHeight() - 2 * padding));
+        }
+    }
+
+    /** Pfad zu den Charakterbildern - Dateinamen sind immer klein geschrieben */
+    private static final String IMAGE_PATH = "/images/%s.png";
+    /** So groß werden die Sprites angezeigt - genau so groß landen sie auch im Atlas */
+    private static final int SPRITE_SIZE = (int) Fighter.HEIGHT;
+    /** Name des Ersatzbilds im Atlas - kann kein Charaktername sein */
+    private static final String PLACEHOLDER = "?missing";
+    private static final Path CACHE_FILE = Paths.get(System.getProperty("user.home"), "GameData", "cache", "sprites.atlas");
+
+    /** Was nicht geladen werden konnte, mit Grund */
+    private static final Map<String, String> failures = new ConcurrentHashMap<>();
+    private static final AtomicInteger finished = new AtomicInteger();
+    private static final ReadOnlyDoubleWrapper progress = new ReadOnlyDoubleWrapper(0);
+    private static CompletableFuture<SpriteAtlas> atlas;
+    private static CompletableFuture<Void> ready;
+
+    private AssetManager() {}
+
+    /**
+     * Startet das Laden aller Charakterbilder - jedes Bild auf einem eigenen Worker.
+     * Mehrfaches Aufrufen schadet nicht, geladen wird nur einmal.
+     * @return ist fertig, sobald der Atlas steht (fehlende Bilder stehen dann in {@link #getFailures()})
+     */
+    public static synchronized CompletableFuture<Void> loadAll() {
+        if (ready != null) {
+            return ready;
+        }
+        String[] types = Archetypes.get().names().toArray(String[]::new);
+        int cores = Runtime.getRuntime().availableProcessors();
+        ExecutorService loaders = Executors.newFixedThreadPool(Math.max(1, Math.min(types.length, cores)), runnable -> {
+            Thread thread = new Thread(runnable, "asset-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        atlas = CompletableFuture.supplyAsync(() -> sourceKey(types), loaders)
+            .thenCompose(key -> {
+                SpriteAtlas cached = readCache(key);
+                if (cached != null) {
+                    Platform.runLater(() -> progress.set(1));
+                    return CompletableFuture.completedFuture(cached);
+                }
+                return decodeAll(types, loaders).thenApply(sprites -> {
+                    SpriteAtlas packed = SpriteAtlas.pack(sprites);
+                    // A cache with holes would hide the failure on the next start
+                    if (failures.isEmpty()) {
+                        writeCache(packed, key);
+                    }
+                    return packed;
+                });
+            })
+            .exceptionally(error -> {
+                failures.put("(all)", String.valueOf(error.getMessage()));
+                return SpriteAtlas.pack(Map.of(PLACEHOLDER, placeholder()));
+            });
+        atlas.whenComplete((done, error) -> loaders.shutdown());
+        ready = atlas.thenApply(done -> null);
+        return ready;
+    }
+
+    /**
+     * Dekodiert alle Bilder parallel, direkt in Anzeigegröße, und rechnet auf demselben Worker
+     * gleich ihre Varianten aus.
+     * @return Name -> Bild in fester Reihenfolge, dazu das Ersatzbild; fehlgeschlagene fehlen
+     */
+    private static CompletableFuture<Map<String, Image>> decodeAll(String[] types, ExecutorService loaders) {
+        Map<String, CompletableFuture<Map<SpriteVariants.Variant, Image>>> images = new LinkedHashMap<>();
+        for (String type : types) {
+            CompletableFuture<Map<SpriteVariants.Variant, Image>> image =
+                CompletableFuture.supplyAsync(() -> SpriteVariants.bake(load(type)), loaders);
+            images.put(type, image.whenComplete((loaded, error) -> {
+                if (error != null) {
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    failures.put(type, cause.getMessage());
+                    System.err.println("Error loading image for " + type + ": " + cause.getMessage());
+                }
+                double done = (double) finished.incrementAndGet() / types.length;
+                Platform.runLater(() -> progress.set(done));
+            }));
+        }
+        return CompletableFuture.allOf(images.values().toArray(new CompletableFuture<?>[0]))
+            .handle((ignored, error) -> {
+                Map<String, Image> sprites = new LinkedHashMap<>();
+                images.forEach((type, image) -> {
+                    if (!image.isCompletedExceptionally()) {
+                        image.join().forEach((variant, baked) -> sprites.put(name(type, variant), baked));
+                    }
+                });
+                sprites.put(PLACEHOLDER, placeholder());
+                return sprites;
+            });
+    }
+
+    private static Image load(String type) {
+        String path = String.format(IMAGE_PATH, type.toLowerCase());
+        URL url = AssetManager.class.getResource(path);
+        if (url == null) {
+            throw new IllegalStateException("missing file " + path);
+        }
+        // Decoded and scaled once on this worker - the views show it 1:1
+        Image image = new Image(url.toString(), SPRITE_SIZE, SPRITE_SIZE, true, true, false);
+        if (image.isError()) {
+            throw new IllegalStateException("cannot decode " + path + ": " + image.getException().getMessage());
+        }
+        return image;
+    }
+
+    /** Name im Atlas - die normale Variante heißt wie der Charakter */
+    private static String name(String type, SpriteVariants.Variant variant) {
+        return variant == SpriteVariants.Variant.NORMAL ? type : type + "#" + variant.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Prüfsumme über Name, Größe und Datum der Quellbilder sowie Sprite-Größe und Varianten-Version.
+     * Billig genug für jeden Start - die Bilder selbst werden dafür nicht gelesen.
+     */
+    private static long sourceKey(String[] types) {
+        StringBuilder description = new StringBuilder().append(SPRITE_SIZE)
+            .append("|variants:").append(SpriteVariants.VERSION);
+        for (String type : types) {
+            description.append('|').append(type);
+            URL url = AssetManager.class.getResource(String.format(IMAGE_PATH, type.toLowerCase()));
+            if (url == null) {
+                description.append(":missing");
+                continue;
+            }
+            try {
+                URLConnection connection = url.openConnection();
+                description.append(':').append(connection.getContentLengthLong())
+                           .append(':').append(connection.getLastModified());
+                connection.getInputStream().close();
+            } catch (IOException e) {
+                description.append(":unreadable");
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(description.toString().getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private static SpriteAtlas readCache(long key) {
+        try {
+            return SpriteAtlas.read(CACHE_FILE, key);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring sprite cache: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeCache(SpriteAtlas packed, long key) {
+        try {
+            packed.write(CACHE_FILE, key);
+        } catch (IOException e) {
+            System.err.println("Could not write sprite cache: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ist fertig, sobald alle Bilder geladen sind. Startet das Laden, falls noch nicht geschehen.
+     */
+    public static CompletableFuture<Void> ready() {
+        return loadAll();
+    }
+
+    /**
+     * Anteil der fertigen Bilder (0 bis 1) - nur vom UI-Thread lesen.
+     */
+    public static ReadOnlyDoubleProperty progressProperty() {
+        return progress.getReadOnlyProperty();
+    }
+
+    /**
+     * Eine Variante des Sprites eines Charakters.
+     * Wartet nur, falls der Atlas noch nicht fertig ist - nach {@link #ready()} also nie.
+     */
+    public static Sprite getSprite(String type, SpriteVariants.Variant variant) {
+        loadAll();
+        SpriteAtlas sprites = atlas.join();
+        Rectangle2D region = sprites.getRegion(name(type, variant));
+        if (region == null) {
+            failures.putIfAbsent(type, "no image");
+            // The placeholder has no variants and no padding
+            return new Sprite(sprites.getImage(), sprites.getRegion(PLACEHOLDER), 0);
+        }
+        return new Sprite(sprites.getImage(), region, SpriteVariants.PADDING);
+    }
+
+    /**
+     * Alle Varianten eines Charakters, Index ist {@link SpriteVariants.Variant#ordinal()}.
+     */
+    public static Sprite[] getSprites(String type) {
+        SpriteVariants.Variant[] variants = SpriteVariants.Variant.values();
+        Sprite[] sprites = new Sprite[variants.length];
+        for (SpriteVariants.Variant variant : variants) {
+            sprites[variant.ordinal()] = getSprite(type, variant);
+        }
+        return sprites;
+    }
+
+    /**
+     * Alle Bilder, die nicht geladen werden konnten, mit Grund - sortiert nach Charakter.
+     */
+    public static Map<String, String> getFailures() {
+        return new TreeMap<>(failures);
+    }
+
+    /** Pinkes Quadrat als Ersatz - fällt sofort auf, die Ansicht skaliert es auf Kämpfergröße */
+    private static Image placeholder() {
+        WritableImage image = new WritableImage(16, 16);
+        PixelWriter pixels = image.getPixelWriter();
+        for (int y = 0; y < 16; y++) {
+            for (int x = 0; x < 16; x++) {
+                pixels.setColor(x, y, Color.MAGENTA);
+            }
+        }
+        return image;
+    }
+}
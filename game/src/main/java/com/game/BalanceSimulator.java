@@ -0,0 +1,160 @@
+package com.game;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Balancing ohne stundenlanges Testspielen.
+ * Lässt jede geordnete Paarung der Charaktere tausende Male headless
+ * gegeneinander antreten (Skript-Gegner auf beiden Seiten) und verteilt
+ * die Matches auf alle Kerne. Heraus kommt eine Siegquoten-Matrix
+ * sowie Zeit bis zum K.O. und ausgeteilter Schaden pro Paarung als CSV.
+ *
+ * Aufruf: java -cp game.jar com.game.BalanceSimulator --games=2000 --out=balance.csv
+ * Die Matrix geht auf stdout (Zeile = Spieler 1, Spalte = Spieler 2, Wert = Siegquote von Spieler 1).
+ */
+public final class BalanceSimulator {
+    /** Nach 99 Sekunden ohne K.O. gibt es ein Unentschieden */
+    private static final int MAX_TICKS = 99 * MatchSimulation.TICKS_PER_SECOND;
+    /** So viele Matches rechnet ein Task am Stück */
+    private static final int GAMES_PER_TASK = 250;
+
+    /** Gesammelte Ergebnisse einer Paarung */
+    private static final class Matchup {
+        int games;
+        int p1Wins;
+        int p2Wins;
+        long koTicks;
+        long p1Damage;
+        long p2Damage;
+
+        void add(Matchup other) {
+            games += other.games;
+            p1Wins += other.p1Wins;
+            p2Wins += other.p2Wins;
+            koTicks += other.koTicks;
+            p1Damage += other.p1Damage;
+            p2Damage += other.p2Damage;
+        }
+
+        int draws() {
+            return games - p1Wins - p2Wins;
+        }
+    }
+
+    private BalanceSimulator() {}
+
+    public static void main(String[] args) throws IOException {
+        int games = intArg(args, "games", 1000);
+        Path out = Paths.get(stringArg(args, "out", "balance.csv"));
+        String[] types = Archetypes.get().names().toArray(String[]::new);
+        int pairs = types.length * types.length;
+        int tasksPerPair = (games + GAMES_PER_TASK - 1) / GAMES_PER_TASK;
+
+        long start = System.nanoTime();
+        Matchup[] results = new Matchup[pairs];
+        for (int i = 0; i < pairs; i++) {
+            results[i] = new Matchup();
+        }
+        // Every (pair, chunk) is its own task so all cores stay busy until the end
+        IntStream.range(0, pairs * tasksPerPair).parallel().forEach(task -> {
+            int pair = task / tasksPerPair;
+            int first = task % tasksPerPair * GAMES_PER_TASK;
+            Matchup chunk = play(types[pair / types.length], types[pair % types.length],
+                                 pair * (long) games + first, Math.min(GAMES_PER_TASK, games - first));
+            synchronized (results[pair]) {
+                results[pair].add(chunk);
+            }
+        });
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        writeDetails(out, types, results);
+        printMatrix(types, results);
+        System.err.printf(Locale.ROOT, "%d matches in %.2f s on %d cores - details in %s%n",
+            (long) pairs * games, seconds, Runtime.getRuntime().availableProcessors(), out);
+    }
+
+    /**
+     * Spielt mehrere Matches einer Paarung hintereinander.
+     * Jedes Match bekommt einen eigenen Seed, damit das Ergebnis nicht von der Aufteilung abhängt.
+     */
+    private static Matchup play(String p1Type, String p2Type, long firstSeed, int count) {
+        Matchup result = new Matchup();
+        MatchSimulation match = new MatchSimulation(p1Type, p2Type);
+        for (int i = 0; i < count; i++) {
+            long seed = firstSeed + i;
+            Controller p1 = new ScriptedController(new Random(seed * 2));
+            Controller p2 = new ScriptedController(new Random(seed * 2 + 1));
+            match.reset();
+            while (!match.isGameOver() && match.getTick() < MAX_TICKS) {
+                match.step(p1.nextInput(match, 0), p2.nextInput(match, 1));
+            }
+
+            result.games++;
+            if (match.getWinner() == 1) {
+                result.p1Wins++;
+            } else if (match.getWinner() == 2) {
+                result.p2Wins++;
+            }
+            if (match.isGameOver()) {
+                result.koTicks += match.getTick();
+            }
+            result.p1Damage += match.getPlayer2().getMaxHealth() - match.getPlayer2().getHealth();
+            result.p2Damage += match.getPlayer1().getMaxHealth() - match.getPlayer1().getHealth();
+        }
+        return result;
+    }
+
+    private static void writeDetails(Path out, String[] types, Matchup[] results) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(out))) {
+            writer.println("player1,player2,games,p1_win_rate,p2_win_rate,draw_rate,avg_seconds_to_ko,avg_p1_damage,avg_p2_damage");
+            for (int i = 0; i < results.length; i++) {
+                Matchup m = results[i];
+                int kos = m.p1Wins + m.p2Wins;
+                writer.printf(Locale.ROOT, "%s,%s,%d,%.4f,%.4f,%.4f,%.2f,%.1f,%.1f%n",
+                    types[i / types.length], types[i % types.length], m.games,
+                    (double) m.p1Wins / m.games, (double) m.p2Wins / m.games, (double) m.draws() / m.games,
+                    kos == 0 ? 0 : (double) m.koTicks / kos / MatchSimulation.TICKS_PER_SECOND,
+                    (double) m.p1Damage / m.games, (double) m.p2Damage / m.games);
+            }
+        }
+    }
+
+    private static void printMatrix(String[] types, Matchup[] results) {
+        StringBuilder line = new StringBuilder("p1\\p2");
+        for (String type : types) {
+            line.append(',').append(type);
+        }
+        System.out.println(line);
+        for (int row = 0; row < types.length; row++) {
+            line.setLength(0);
+            line.append(types[row]);
+            for (int column = 0; column < types.length; column++) {
+                Matchup m = results[row * types.length + column];
+                line.append(String.format(Locale.ROOT, ",%.3f", (double) m.p1Wins / m.games));
+            }
+            System.out.println(line);
+        }
+    }
+
+    private static int intArg(String[] args, String name, int fallback) {
+        String value = stringArg(args, name, null);
+        return value != null ? Integer.parseInt(value) : fallback;
+    }
+
+    private static String stringArg(String[] args, String name, String fallback) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,250 @@
+package com.game;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+import java.util.Random;
+
+/**
+ * Die Arena fürs Free-for-all: ein oder zwei Spieler an der Tastatur (Steuerung wie im 1v1),
+ * alle anderen sind Skript-Gegner. Wer als Letzter steht, gewinnt.
+ *
+ * Die Arena ist hier breiter als das Fenster und wird darum verkleinert aufs Canvas gezeichnet -
+ * wie beim {@link CanvasRenderer}, nur ohne festes Paar. Siege zählen nicht für die Bestenliste,
+ * Replays gibt es nur im 1v1.
+ */
+public final class BrawlArena {
+    private static final double WIDTH = 800;
+    private static final double HEIGHT = 600;
+    /** Oberkante des Bodens im Fenster - wie im 1v1, die Arena wird darauf stehend verkleinert */
+    private static final double FLOOR_Y = 500;
+
+    private static final long TICK_NANOS = 1_000_000_000L / MatchSimulation.TICKS_PER_SECOND;
+    private static final int MAX_CATCH_UP_TICKS = 8;
+
+    private final BrawlSimulation simulation;
+    /** Die ersten Kämpfer gehören den Spielern, der Rest den Bots */
+    private final int humans;
+    private final ScriptedController[] bots;
+    private final int[] inputs;
+    /** Varianten je Kämpfer, Index ist {@link SpriteVariants.Variant#ordinal()} */
+    private final AssetManager.Sprite[][] sprites;
+
+    private final Canvas world = new Canvas(WIDTH, HEIGHT);
+    private final Label status = new Label();
+    private final Label gameOverLabel = new Label();
+    private final HBox gameOverButtons = new HBox(20);
+    private final Pane gamePane = new Pane();
+    /** Zuletzt angezeigte Zahl der Übrigen - der Text wird nur bei einer Änderung neu gesetzt */
+    private int shownAlive = -1;
+
+    private final InputBuffer input = new InputBuffer(new FrameStats());
+    private AnimationTimer gameLoop;
+    private boolean running = false;
+    private long lastFrame = 0;
+    private long accumulator = 0;
+
+    /**
+     * @param types ein Charakter pro Kämpfer, die Spieler zuerst
+     * @param humans 1 oder 2 Spieler an der Tastatur
+     */
+    public BrawlArena(String[] types, int humans, GameManager gameManager) {
+        this.humans = humans;
+        simulation = new BrawlSimulation(types);
+        inputs = new int[types.length];
+        bots = new ScriptedController[types.length];
+        sprites = new AssetManager.Sprite[types.length][];
+        Random random = new Random();
+        for (int i = 0; i < types.length; i++) {
+            sprites[i] = AssetManager.getSprites(types[i]);
+            if (i >= humans) {
+                bots[i] = new ScriptedController(new Random(random.nextLong()));
+            }
+        }
+
+        status.setLayoutX(20);
+        status.setLayoutY(20);
+        gameOverLabel.setStyle("-fx-font-size: 24;");
+        gameOverLabel.setLayoutX(300);
+        gameOverLabel.setLayoutY(250);
+        gameOverButtons.setLayoutX(300);
+        gameOverButtons.setLayoutY(300);
+        Button restartButton = new Button("Play Again");
+        restartButton.setOnAction(e -> restart());
+        Button menuButton = new Button("Main Menu");
+        menuButton.setOnAction(e -> {
+            pause();
+            gameManager.showMainMenu();
+        });
+        gameOverButtons.getChildren().addAll(restartButton, menuButton);
+        setGameOverVisible(false);
+
+        world.setMouseTransparent(true);
+        gamePane.setPrefSize(WIDTH, HEIGHT);
+        gamePane.getChildren().addAll(world, status, gameOverLabel, gameOverButtons);
+        gamePane.setFocusTraversable(true);
+        gamePane.setOnKeyPressed(e -> {
+            input.keyPressed(e.getCode(), System.nanoTime());
+            e.consume();
+        });
+        gamePane.setOnKeyReleased(e -> {
+            input.keyReleased(e.getCode(), System.nanoTime());
+            e.consume();
+        });
+        createGameLoop();
+        render(1);
+    }
+
+    /**
+     * Gameloop wie in der {@link GameArena}: feste 60 Ticks pro Sekunde, gezeichnet wird interpoliert.
+     */
+    private void createGameLoop() {
+        gameLoop = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (lastFrame == 0) {
+                    lastFrame = now;
+                    return;
+                }
+                accumulator += now - lastFrame;
+                lastFrame = now;
+                int steps = 0;
+                while (accumulator >= TICK_NANOS && steps < MAX_CATCH_UP_TICKS && !simulation.isGameOver()) {
+                    input.advance(now - accumulator + TICK_NANOS, System.nanoTime());
+                    update();
+                    accumulator -= TICK_NANOS;
+                    steps++;
+                }
+                if (steps == MAX_CATCH_UP_TICKS || simulation.isGameOver()) {
+                    accumulator = Math.min(accumulator, TICK_NANOS - 1);
+                }
+                render((double) accumulator / TICK_NANOS);
+                if (simulation.isGameOver() && !gameOverLabel.isVisible()) {
+                    showGameOver();
+                }
+            }
+        };
+    }
+
+    /**
+     * Ein Tick: Tastatur für die Spieler, Skript für alle anderen.
+     */
+    private void update() {
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = i < humans ? input.getInput(i) : bots[i].nextInput(simulation, i);
+        }
+        simulation.step(inputs);
+    }
+
+    /**
+     * Zeichnet die ganze Arena so verkleinert, dass sie ins Fenster passt - der Boden bleibt wo er ist.
+     */
+    private void render(double alpha) {
+        GraphicsContext g = world.getGraphicsContext2D();
+        g.clearRect(0, 0, WIDTH, HEIGHT);
+        g.setFill(Color.GRAY);
+        g.fillRect(0, FLOOR_Y, WIDTH, HEIGHT - FLOOR_Y);
+
+        double scale = WIDTH / simulation.getArenaWidth();
+        long tick = simulation.getTick();
+        g.save();
+        g.translate(0, FLOOR_Y * (1 - scale));
+        g.scale(scale, scale);
+        for (int i = 0; i < simulation.getFighterCount(); i++) {
+            if (simulation.isKnockedOut(i)) {
+                continue;
+            }
+            Fighter fighter = simulation.getFighter(i);
+            CanvasRenderer.drawFighter(g, fighter, sprites[i][SpriteVariants.of(fighter, tick).ordinal()], alpha);
+            g.setFill(Color.GREEN);
+            g.fillRect(fighter.getRenderX(alpha) + Fighter.WIDTH / 2 - fighter.getMaxHealth(),
+                       fighter.getRenderY(alpha) - 30, fighter.getHealth() * 2, 15);
+        }
+        CanvasRenderer.drawProjectiles(g, simulation.getProjectiles(), alpha);
+        g.restore();
+
+        // Player tags in window coordinates, otherwise they shrink with the arena
+        g.setFill(Color.BLACK);
+        g.setTextAlign(TextAlignment.CENTER);
+        g.setTextBaseline(VPos.BOTTOM);
+        for (int i = 0; i < humans; i++) {
+            if (!simulation.isKnockedOut(i)) {
+                Fighter fighter = simulation.getFighter(i);
+                g.fillText("P" + (i + 1), (fighter.getRenderX(alpha) + Fighter.WIDTH / 2) * scale,
+                           FLOOR_Y * (1 - scale) + (fighter.getRenderY(alpha) - 30) * scale);
+            }
+        }
+        g.setTextAlign(TextAlignment.LEFT);
+
+        if (simulation.getAliveCount() != shownAlive) {
+            shownAlive = simulation.getAliveCount();
+            status.setText(String.format("Fighters left: %d/%d   P1: WASD + QE%s", shownAlive,
+                simulation.getFighterCount(), humans > 1 ? "   P2: Arrows + KL" : ""));
+        }
+    }
+
+    private void showGameOver() {
+        int winner = simulation.getWinner();
+        if (winner < 0) {
+            gameOverLabel.setText("Nobody is left standing!");
+        } else if (winner < humans) {
+            gameOverLabel.setText("Player " + (winner + 1) + " wins!");
+        } else {
+            gameOverLabel.setText("CPU (" + simulation.getFighter(winner).getType() + ") wins!");
+        }
+        setGameOverVisible(true);
+    }
+
+    private void setGameOverVisible(boolean visible) {
+        gameOverLabel.setVisible(visible);
+        gameOverButtons.setVisible(visible);
+    }
+
+    /**
+     * Neue Runde mit denselben Kämpfern.
+     */
+    private void restart() {
+        simulation.reset();
+        input.clear();
+        setGameOverVisible(false);
+        render(1);
+        gamePane.requestFocus();
+    }
+
+    /**
+     * Startet bzw. setzt den Gameloop fort.
+     */
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        lastFrame = 0;
+        accumulator = 0;
+        gameLoop.start();
+        gamePane.requestFocus();
+    }
+
+    /**
+     * Hält den Gameloop an - eine pausierte Arena kostet keine CPU mehr.
+     */
+    public void pause() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        gameLoop.stop();
+        input.clear();
+    }
+
+    public Pane getGamePane() {
+        return gamePane;
+    }
+}
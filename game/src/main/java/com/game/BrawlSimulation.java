@@ -0,0 +1,394 @@
+package com.game;
+
+import java.util.Arrays;
+
+/**
+ * Free-for-all: bis zu {@link #MAX_FIGHTERS} Kämpfer in einer Arena, jeder gegen jeden.
+ * Wie {@link MatchSimulation} eine reine Simulation ohne JavaFX - nur gibt es keine feste Paarung mehr,
+ * wen ein Angriff oder Projektil trifft, entscheidet ein Raster über die Arena.
+ *
+ * Das Raster teilt die Arena in Spalten von {@link #CELL_WIDTH} px und wird jeden Tick per
+ * Counting Sort neu aufgebaut (ein paar int-Arrays, angelegt wird nichts). Nahkampf, Projektile
+ * und Bots schauen dann nur in die Spalten in ihrer Nähe statt alle anderen Kämpfer durchzugehen.
+ * Die Arena wächst mit der Zahl der Kämpfer, pro Spalte stehen also immer etwa gleich viele -
+ * ein Tick wird damit ungefähr linear teurer statt quadratisch. Die Höhe zählt nur bei Projektilen
+ * und wird dort direkt geprüft, Spalten reichen also.
+ *
+ * Online-Matches und Replays gibt es weiterhin nur im 1v1.
+ */
+public final class BrawlSimulation {
+    /** Mehr Kämpfer passen nicht in eine Arena */
+    public static final int MAX_FIGHTERS = 64;
+    /** Breite einer Rasterspalte - breiter als die Trefferzone, ein Projektil prüft also höchstens zwei Spalten */
+    static final double CELL_WIDTH = 128;
+    /** Platz pro Kämpfer beim Start, danach richtet sich die Breite der Arena */
+    private static final double SPACING = 160;
+
+    private final Fighter[] fighters;
+    private final double arenaWidth;
+    /** Raus ist, wer beim letzten Tick-Ende keine Lebenspunkte mehr hatte */
+    private final boolean[] knockedOut;
+    private int alive;
+    /** Eingaben des letzten Ticks - ein Fehlschlag wird nur beim Drücken gemeldet */
+    private final int[] previousInputs;
+
+    /** Was die Fernkämpfer verschossen haben - Besitzer ist der Index des Kämpfers */
+    private final Projectiles projectiles = new Projectiles();
+
+    /** Raster: die Kämpfer in Spalte c stehen in cellFighters[cellStart[c]] bis cellFighters[cellStart[c + 1] - 1] */
+    private final int cellCount;
+    private final int[] cellStart;
+    private final int[] cellNext;
+    private final int[] cellFighters;
+    private final int[] fighterCell;
+    /** Aus zum Vergleichen - dann wird wieder jeder gegen jeden geprüft, siehe {@link BrawlStress} */
+    private boolean broadphase = true;
+
+    /** Projektile treffen den ersten Kämpfer (kleinster Index) in ihrer Spalte */
+    private final Projectiles.Targets targets = new Projectiles.Targets() {
+        @Override
+        public int findTarget(int owner, double x, double y) {
+            return fighterAt(owner, x, y);
+        }
+
+        @Override
+        public Fighter fighter(int slot) {
+            return fighters[slot];
+        }
+    };
+
+    private long tick = 0;
+    private boolean gameOver = false;
+    private int winner = -1;
+
+    /** Treffer, Fehlschläge, Cooldowns und K.O. - wie beim 1v1 nicht Teil des Zustands */
+    private final CombatEvents events = new CombatEvents();
+
+    /**
+     * Erstellt eine Arena mit einem Kämpfer pro Typ, gleichmäßig verteilt.
+     * Die Arena ist mindestens so breit wie im 1v1 und wächst mit der Zahl der Kämpfer.
+     */
+    public BrawlSimulation(String... types) {
+        if (types.length < 2 || types.length > MAX_FIGHTERS) {
+            throw new IllegalArgumentException("2 to " + MAX_FIGHTERS + " fighters, not " + types.length);
+        }
+        int count = types.length;
+        arenaWidth = Math.max(Fighter.ARENA_WIDTH, count * SPACING + Fighter.WIDTH);
+        fighters = new Fighter[count];
+        for (int i = 0; i < count; i++) {
+            fighters[i] = new Fighter(types[i], (arenaWidth - Fighter.WIDTH) * i / (count - 1));
+            fighters[i].setArenaWidth(arenaWidth);
+        }
+        knockedOut = new boolean[count];
+        previousInputs = new int[count];
+        projectiles.setArenaWidth(arenaWidth);
+
+        cellCount = (int) (arenaWidth / CELL_WIDTH) + 1;
+        cellStart = new int[cellCount + 1];
+        cellNext = new int[cellCount];
+        cellFighters = new int[count];
+        fighterCell = new int[count];
+        reset();
+    }
+
+    /**
+     * Ein Simulationsschritt.
+     * Ablauf wie im 1v1: erst bewegen sich alle, dann wird angegriffen, dann fliegen die Projektile.
+     * @param inputs Eingabe-Bits pro Kämpfer (MatchSimulation.INPUT_*), K.O. gegangene werden ignoriert
+     */
+    public void step(int[] inputs) {
+        if (gameOver) {
+            return;
+        }
+        tick++;
+        for (int i = 0; i < fighters.length; i++) {
+            fighters[i].beginTick();
+            if (!knockedOut[i]) {
+                handleMovement(fighters[i], inputs[i]);
+            }
+        }
+        rebuildGrid();
+        int attackBits = MatchSimulation.INPUT_ATTACK | MatchSimulation.INPUT_SPECIAL;
+        for (int i = 0; i < fighters.length; i++) {
+            boolean pressed = (inputs[i] & ~previousInputs[i] & attackBits) != 0;
+            previousInputs[i] = inputs[i];
+            if (!knockedOut[i] && (inputs[i] & attackBits) != 0) {
+                handleAttack(i, (inputs[i] & MatchSimulation.INPUT_SPECIAL) != 0, pressed);
+            }
+        }
+        projectiles.step(targets, tick, events);
+        for (int i = 0; i < fighters.length; i++) {
+            update(i);
+        }
+        checkKnockouts();
+    }
+
+    private void handleMovement(Fighter fighter, int input) {
+        if ((input & MatchSimulation.INPUT_LEFT) != 0) {
+            fighter.moveLeft();
+        }
+        if ((input & MatchSimulation.INPUT_RIGHT) != 0) {
+            fighter.moveRight();
+        }
+        if ((input & MatchSimulation.INPUT_JUMP) != 0) {
+            fighter.jump();
+        }
+    }
+
+    /**
+     * Angriff wie im 1v1, nur gegen den nächsten Gegner.
+     * Nahkampf trifft den nächsten in Reichweite, Fernkämpfer schießen zur Seite des nächsten Gegners.
+     * @param pressed die Taste wurde in diesem Tick gedrückt - nur dann zählt ein Fehlschlag als WHIFF
+     */
+    private void handleAttack(int slot, boolean isStrongAttack, boolean pressed) {
+        Fighter attacker = fighters[slot];
+        if (isStrongAttack && !attacker.canUseStrongAttack(tick)) {
+            return;
+        }
+        if (!attacker.canAttack()) {
+            return;
+        }
+
+        if (attacker.isRanged()) {
+            int enemy = nearestEnemy(slot, Double.POSITIVE_INFINITY);
+            // Nobody left to aim at - shoot where we are looking
+            projectiles.fire(slot, attacker, enemy >= 0 ? fighters[enemy] : attacker, isStrongAttack);
+            attacker.setAttackCooldown(tick);
+            if (isStrongAttack) {
+                attacker.setStrongAttackCooldown(tick);
+            }
+            return;
+        }
+
+        int enemy = nearestEnemy(slot, attacker.getAttackRange());
+        if (enemy < 0) {
+            if (pressed) {
+                events.publish(CombatEvents.Type.WHIFF, tick, slot, -1, 0, 0, isStrongAttack);
+            }
+            return;
+        }
+        Fighter target = fighters[enemy];
+        int healthBefore = target.getHealth();
+        if (attacker.attack(target, isStrongAttack, tick) && isStrongAttack) {
+            attacker.setStrongAttackCooldown(tick);
+        }
+        events.publish(CombatEvents.Type.DAMAGE, tick, slot, enemy,
+                       healthBefore - target.getHealth(), target.getHealth(), isStrongAttack);
+    }
+
+    /**
+     * Physik-Tick eines Kämpfers, meldet dabei, wenn der Spezialangriff wieder bereit ist.
+     */
+    private void update(int slot) {
+        Fighter fighter = fighters[slot];
+        fighter.update(tick);
+        if (!events.hasListeners() || knockedOut[slot]) {
+            return;
+        }
+        if (fighter.isStrongAttackReady(tick) && !fighter.isStrongAttackReady(tick - 1)) {
+            events.publish(CombatEvents.Type.COOLDOWN_READY, tick, slot, -1, 0, 0, true);
+        }
+    }
+
+    /**
+     * Nimmt alle ohne Lebenspunkte raus. Ist höchstens einer übrig, ist das Match vorbei -
+     * gehen die letzten gleichzeitig K.O., gibt es keinen Sieger.
+     */
+    private void checkKnockouts() {
+        for (int i = 0; i < fighters.length; i++) {
+            if (!knockedOut[i] && fighters[i].getHealth() <= 0) {
+                knockedOut[i] = true;
+                alive--;
+            }
+        }
+        if (alive > 1) {
+            return;
+        }
+        gameOver = true;
+        for (int i = 0; i < fighters.length; i++) {
+            if (!knockedOut[i]) {
+                winner = i;
+                events.publish(CombatEvents.Type.KO, tick, i, -1, 0, 0, false);
+            }
+        }
+    }
+
+    /**
+     * Sortiert die Kämpfer nach Spalte ihrer Mitte, innerhalb einer Spalte nach Index.
+     * Wer K.O. ist, kommt gar nicht erst ins Raster.
+     */
+    private void rebuildGrid() {
+        Arrays.fill(cellStart, 0);
+        for (int i = 0; i < fighters.length; i++) {
+            if (!knockedOut[i]) {
+                fighterCell[i] = cell(fighters[i].getCenterX());
+                cellStart[fighterCell[i] + 1]++;
+            }
+        }
+        for (int c = 0; c < cellCount; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        System.arraycopy(cellStart, 0, cellNext, 0, cellCount);
+        for (int i = 0; i < fighters.length; i++) {
+            if (!knockedOut[i]) {
+                cellFighters[cellNext[fighterCell[i]]++] = i;
+            }
+        }
+    }
+
+    private int cell(double x) {
+        return Math.max(0, Math.min(cellCount - 1, (int) (x / CELL_WIDTH)));
+    }
+
+    /** Ob ein Kämpfer noch getroffen werden kann - auch wer erst in diesem Tick K.O. ging, nicht mehr */
+    private boolean isTargetable(int slot) {
+        return !knockedOut[slot] && fighters[slot].getHealth() > 0;
+    }
+
+    /**
+     * Der nächste Gegner, Mitte zu Mitte gemessen. Bei gleichem Abstand gewinnt der kleinere Index,
+     * damit Raster und "jeder gegen jeden" immer dasselbe Ergebnis liefern.
+     * Mit Raster wird von der eigenen Spalte aus nach außen gesucht, bis keine Spalte mehr näher sein kann -
+     * leere Spalten kosten dabei nichts.
+     * @param maxDistance weiter weg zählt nicht
+     * @return Index des Gegners, -1 wenn keiner in Reichweite ist
+     */
+    public int nearestEnemy(int slot, double maxDistance) {
+        double x = fighters[slot].getCenterX();
+        int best = -1;
+        double bestDistance = maxDistance;
+        if (!broadphase) {
+            for (int j = 0; j < fighters.length; j++) {
+                if (j != slot && isTargetable(j)) {
+                    double distance = Math.abs(fighters[j].getCenterX() - x);
+                    if (isCloser(j, distance, best, bestDistance)) {
+                        best = j;
+                        bestDistance = distance;
+                    }
+                }
+            }
+            return best;
+        }
+
+        // The grid is sorted by column, so walking outward from our column visits the columns in order
+        // of distance - stop as soon as a whole column is further away than the best so far
+        int home = cell(x);
+        for (int k = cellStart[home]; k < cellStart[cellCount]; k++) {
+            int j = cellFighters[k];
+            if (fighterCell[j] * CELL_WIDTH - x > bestDistance) {
+                break;
+            }
+            if (j != slot && isTargetable(j)) {
+                double distance = Math.abs(fighters[j].getCenterX() - x);
+                if (isCloser(j, distance, best, bestDistance)) {
+                    best = j;
+                    bestDistance = distance;
+                }
+            }
+        }
+        for (int k = cellStart[home] - 1; k >= 0; k--) {
+            int j = cellFighters[k];
+            if (x - (fighterCell[j] + 1) * CELL_WIDTH > bestDistance) {
+                break;
+            }
+            if (isTargetable(j)) {
+                double distance = Math.abs(fighters[j].getCenterX() - x);
+                if (isCloser(j, distance, best, bestDistance)) {
+                    best = j;
+                    bestDistance = distance;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static boolean isCloser(int candidate, double distance, int best, double bestDistance) {
+        return distance < bestDistance || (distance == bestDistance && (best < 0 || candidate < best));
+    }
+
+    /**
+     * Wessen Trefferzone an diesem Punkt liegt - der Besitzer des Projektils zählt nicht.
+     * @return kleinster passender Index, -1 wenn keiner
+     */
+    private int fighterAt(int owner, double x, double y) {
+        if (!broadphase) {
+            for (int j = 0; j < fighters.length; j++) {
+                if (j != owner && isTargetable(j) && Projectiles.hits(fighters[j], x, y)) {
+                    return j;
+                }
+            }
+            return -1;
+        }
+        int hit = -1;
+        int last = cell(x + Projectiles.HURT_HALF_WIDTH);
+        for (int c = cell(x - Projectiles.HURT_HALF_WIDTH); c <= last; c++) {
+            for (int k = cellStart[c]; k < cellStart[c + 1]; k++) {
+                int j = cellFighters[k];
+                if (j != owner && (hit < 0 || j < hit) && isTargetable(j) && Projectiles.hits(fighters[j], x, y)) {
+                    hit = j;
+                }
+            }
+        }
+        return hit;
+    }
+
+    /**
+     * Neue Runde mit denselben Kämpfern auf ihren Startplätzen.
+     */
+    public void reset() {
+        for (Fighter fighter : fighters) {
+            fighter.reset();
+        }
+        Arrays.fill(knockedOut, false);
+        Arrays.fill(previousInputs, 0);
+        alive = fighters.length;
+        projectiles.clear();
+        tick = 0;
+        gameOver = false;
+        winner = -1;
+        rebuildGrid();
+        events.clear();
+        events.publish(CombatEvents.Type.RESYNC, tick, 0, -1, 0, 0, false);
+    }
+
+    /**
+     * Schaltet das Raster ab bzw. wieder an. Das Ergebnis ist in beiden Fällen exakt gleich,
+     * nur die Rechenzeit nicht.
+     */
+    public void setBroadphase(boolean enabled) {
+        broadphase = enabled;
+    }
+
+    /**
+     * Prüfsumme über die ganze Arena - damit lässt sich zeigen, dass Raster und "jeder gegen jeden"
+     * dieselben Kämpfe liefern.
+     */
+    public long checksum() {
+        long hash = fighters.length;
+        for (Fighter fighter : fighters) {
+            hash = hash * 31 + fighter.checksum();
+        }
+        hash = hash * 31 + projectiles.checksum();
+        hash = hash * 31 + tick;
+        hash = hash * 31 + winner;
+        return hash;
+    }
+
+    public int getFighterCount() { return fighters.length; }
+    public Fighter getFighter(int slot) { return fighters[slot]; }
+    public boolean isKnockedOut(int slot) { return knockedOut[slot]; }
+    public int getAliveCount() { return alive; }
+    public double getArenaWidth() { return arenaWidth; }
+    public Projectiles getProjectiles() { return projectiles; }
+    public long getTick() { return tick; }
+    public boolean isBroadphase() { return broadphase; }
+
+    /** Die Ereignisse dieser Arena - Index des Kämpfers statt Spieler 1/2 */
+    public CombatEvents events() { return events; }
+    public boolean isGameOver() { return gameOver; }
+
+    /**
+     * @return Index des Siegers, -1 solange gekämpft wird oder wenn die letzten gleichzeitig K.O. gingen
+     */
+    public int getWinner() { return winner; }
+}
@@ -0,0 +1,105 @@
+package com.game;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Stress-Szene für das Free-for-all.
+ * Lässt 2, 8, 32 und 64 Skript-Gegner gegeneinander kämpfen und misst, wie lange ein Tick dauert
+ * (Eingaben der Bots plus {@link BrawlSimulation#step}) - einmal mit Raster, einmal jeder gegen jeden.
+ * Mit Raster sollte die Zeit pro Kämpfer ungefähr gleich bleiben.
+ * Die Runde startet wie im BrawlBenchmark spätestens alle 5 Sekunden neu, sonst wären
+ * die meisten gemessenen Ticks fast leer - die Spalte "alive" zeigt, wie viele im Schnitt noch standen.
+ * Beide Läufe müssen dieselbe Prüfsumme haben, sonst trifft das Raster etwas anderes.
+ *
+ * Aufruf: java -cp game.jar com.game.BrawlStress --ticks=20000 --warmup=5000
+ */
+public final class BrawlStress {
+    private static final int[] FIGHTER_COUNTS = { 2, 8, 32, 64 };
+    private static final int ROUND_TICKS = 5 * MatchSimulation.TICKS_PER_SECOND;
+
+    private BrawlStress() {}
+
+    public static void main(String[] args) {
+        int ticks = intArg(args, "ticks", 20_000);
+        int warmup = intArg(args, "warmup", 5_000);
+        String[] names = Archetypes.get().names().toArray(String[]::new);
+
+        System.out.printf("%d ticks per run after %d warm-up ticks%n", ticks, warmup);
+        System.out.println("fighters  mode        alive   mean us   p99 us   us/fighter  rounds  checksum");
+        int errors = 0;
+        for (int count : FIGHTER_COUNTS) {
+            String[] types = new String[count];
+            for (int i = 0; i < count; i++) {
+                types[i] = names[i % names.length];
+            }
+            long grid = run(types, true, warmup, ticks);
+            long allPairs = run(types, false, warmup, ticks);
+            if (grid != allPairs) {
+                System.out.printf("%d fighters: grid and all pairs disagree%n", count);
+                errors++;
+            }
+        }
+        System.out.println(errors == 0 ? "OK - grid and all pairs fought the same fights" : "FAILED");
+        System.exit(errors == 0 ? 0 : 1);
+    }
+
+    /**
+     * Ein Lauf: Bots gegeneinander, nach jedem Sieg oder nach {@link #ROUND_TICKS} eine neue Runde.
+     * @return Prüfsumme am Ende
+     */
+    private static long run(String[] types, boolean broadphase, int warmup, int ticks) {
+        BrawlSimulation brawl = new BrawlSimulation(types);
+        brawl.setBroadphase(broadphase);
+        ScriptedController[] bots = new ScriptedController[types.length];
+        for (int i = 0; i < bots.length; i++) {
+            bots[i] = new ScriptedController(new Random(i));
+        }
+        int[] inputs = new int[types.length];
+        long[] nanos = new long[ticks];
+        long hash = 0;
+        int rounds = 0;
+        long alive = 0;
+
+        for (int t = -warmup; t < ticks; t++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < bots.length; i++) {
+                inputs[i] = bots[i].nextInput(brawl, i);
+            }
+            brawl.step(inputs);
+            long elapsed = System.nanoTime() - start;
+            if (t >= 0) {
+                nanos[t] = elapsed;
+                alive += brawl.getAliveCount();
+            }
+            if (brawl.isGameOver() || brawl.getTick() == ROUND_TICKS) {
+                hash = hash * 31 + brawl.checksum();
+                brawl.reset();
+                rounds++;
+            }
+        }
+        hash = hash * 31 + brawl.checksum();
+
+        long total = 0;
+        for (long n : nanos) {
+            total += n;
+        }
+        Arrays.sort(nanos);
+        double mean = total / 1000.0 / ticks;
+        System.out.printf(Locale.ROOT, "%8d  %-10s %6.1f %8.2f %8.2f %12.3f %7d  %016x%n",
+            types.length, broadphase ? "grid" : "all pairs", (double) alive / ticks, mean, nanos[(int) (ticks * 0.99)] / 1000.0,
+            mean / types.length, rounds, hash);
+        return hash;
+    }
+
+    private static int intArg(String[] args, String name, int fallback) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return Integer.parseInt(arg.substring(prefix.length()));
+            }
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,155 @@
+package com.game;
+
+import javafx.geometry.Rectangle2D;
+import javafx.geometry.VPos;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * Zeichnet die ganze Arena in einem Durchgang auf ein Canvas.
+ * Statt einem Dutzend Nodes, die JavaFX jeden Pulse abgleichen muss, gibt es nur zwei:
+ * die Spielfläche, die jedes Bild neu gezeichnet wird, und darüber die Texte,
+ * die nur neu gezeichnet werden, wenn sich etwas geändert hat.
+ * Die Kämpfer kommen direkt als Ausschnitt aus dem Sprite-Atlas.
+ */
+public final class CanvasRenderer implements ArenaRenderer {
+    private static final double WIDTH = 800;
+    private static final double HEIGHT = 600;
+    /** Projektilfarbe je Spieler - im Free-for-all abwechselnd */
+    private static final Color[] PROJECTILE_COLORS = { Color.ORANGE, Color.DEEPSKYBLUE };
+
+    private final Canvas world = new Canvas(WIDTH, HEIGHT);
+    private final Canvas hud = new Canvas(WIDTH, HEIGHT);
+    private final Pane pane = new Pane(world, hud);
+
+    private MatchSimulation simulation;
+    /** Varianten je Kämpfer, Index ist {@link SpriteVariants.Variant#ordinal()} */
+    private AssetManager.Sprite[] sprites1;
+    private AssetManager.Sprite[] sprites2;
+
+    /** Was zuletzt als Text gezeichnet wurde */
+    private String stats1 = "";
+    private String stats2 = "";
+    /** Treffer oder neue Stats - die Texte müssen neu gezeichnet werden */
+    private boolean hudDirty = true;
+
+    public CanvasRenderer() {
+        hud.setMouseTransparent(true);
+        world.setMouseTransparent(true);
+    }
+
+    @Override
+    public Node getNode() {
+        return pane;
+    }
+
+    @Override
+    public void setMatch(MatchSimulation simulation) {
+        this.simulation = simulation;
+        sprites1 = AssetManager.getSprites(simulation.getPlayer1().getType());
+        sprites2 = AssetManager.getSprites(simulation.getPlayer2().getType());
+        hudDirty = true;
+    }
+
+    @Override
+    public void setStats(String player1, String player2) {
+        stats1 = player1;
+        stats2 = player2;
+        hudDirty = true;
+    }
+
+    @Override
+    public void render(double alpha) {
+        long tick = simulation.getTick();
+        Fighter fighter1 = simulation.getPlayer1();
+        Fighter fighter2 = simulation.getPlayer2();
+        GraphicsContext g = world.getGraphicsContext2D();
+        g.clearRect(0, 0, WIDTH, HEIGHT);
+
+        g.setFill(Color.GRAY);
+        g.fillRect(0, 500, 800, 100);
+
+        drawFighter(g, fighter1, sprites1[SpriteVariants.of(fighter1, tick).ordinal()], alpha);
+        drawFighter(g, fighter2, sprites2[SpriteVariants.of(fighter2, tick).ordinal()], alpha);
+        drawProjectiles(g, simulation.getProjectiles(), alpha);
+
+        g.setFill(Color.GREEN);
+        g.fillRect(50, 20, Math.max(0, fighter1.getHealth() * 2), 20);
+        g.fillRect(550, 20, Math.max(0, fighter2.getHealth() * 2), 20);
+
+        if (hudDirty) {
+            drawHud(fighter1.getHealth(), fighter2.getHealth());
+        }
+    }
+
+    @Override
+    public void onCombatEvent(CombatEvents.Event event) {
+        if (event.type() == CombatEvents.Type.DAMAGE || event.type() == CombatEvents.Type.RESYNC) {
+            hudDirty = true;
+        }
+    }
+
+    /**
+     * Ein Kämpfer: Ausschnitt aus dem Atlas, gespiegelt wenn er nach links schaut.
+     * Sieht aus wie die {@link Character}-Ansicht - die Effekte stecken schon in der Variante.
+     * Auch von der {@link BrawlArena} benutzt.
+     */
+    static void drawFighter(GraphicsContext g, Fighter fighter, AssetManager.Sprite sprite, double alpha) {
+        Rectangle2D region = sprite.region();
+        double scale = sprite.scale();
+        double padding = sprite.padding() * scale;
+        double width = region.getWidth() * scale;
+        double height = region.getHeight() * scale;
+        // Mirror around the middle of the content, like ImageView.setScaleX(-1)
+        double half = width / 2 - padding;
+
+        g.save();
+        g.translate(fighter.getRenderX(alpha) + half, fighter.getRenderY(alpha));
+        if (!fighter.isFacingRight()) {
+            g.scale(-1, 1);
+        }
+        g.drawImage(sprite.image(), region.getMinX(), region.getMinY(), region.getWidth(), region.getHeight(),
+                    -half - padding, -padding, width, height);
+        g.restore();
+    }
+
+    /**
+     * Alle Projektile als Kreise - die Farbe wird nur beim Wechsel des Besitzers neu gesetzt.
+     * Auch vom {@link SceneGraphRenderer} benutzt, der dafür eine eigene Canvas-Ebene hat.
+     */
+    static void drawProjectiles(GraphicsContext g, Projectiles projectiles, double alpha) {
+        double size = 2 * Projectiles.RADIUS;
+        int color = -1;
+        for (int i = 0; i < projectiles.getCount(); i++) {
+            if (projectiles.getOwner(i) != color) {
+                color = projectiles.getOwner(i);
+                g.setFill(PROJECTILE_COLORS[color % PROJECTILE_COLORS.length]);
+            }
+            g.fillOval(projectiles.getRenderX(i, alpha) - Projectiles.RADIUS,
+                       projectiles.getRenderY(i, alpha) - Projectiles.RADIUS, size, size);
+        }
+    }
+
+    /** Lebenspunkte und Stats - nur nach einem Treffer, Reset oder neuen Stats */
+    private void drawHud(int health1, int health2) {
+        GraphicsContext g = hud.getGraphicsContext2D();
+        g.clearRect(0, 0, WIDTH, HEIGHT);
+        g.setFont(Font.getDefault());
+        g.setFill(Color.BLACK);
+        g.setTextBaseline(VPos.TOP);
+        g.fillText(health1 + "/100", 50, 40);
+        g.fillText(health2 + "/100", 550, 40);
+        g.fillText(stats1, 50, 60);
+        g.fillText(stats2, 550, 60);
+        hudDirty = false;
+    }
+
+    @Override
+    public String getName() {
+        return "canvas";
+    }
+}
@@ -0,0 +1,98 @@
+package com.game;
+
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * Debug-Anzeige der echten Kollisionsboxen (F5).
+ * Die grüne Umrandung der Sprites folgt dem Bild, nicht der Box, mit der {@link MatchSimulation} rechnet -
+ * hier sieht man, was wirklich zählt. Liegt über jedem Renderer und kostet nichts, solange sie aus ist.
+ *
+ * Gezeichnet wird der Stand des letzten Ticks, also ohne Interpolation.
+ */
+public final class CollisionOverlay {
+    private static final Color BODY = Color.RED;
+    private static final Color REACH = Color.rgb(255, 200, 0, 0.25);
+    private static final Color REACH_BORDER = Color.ORANGE;
+    private static final Color HURT = Color.MAGENTA;
+
+    private final Canvas canvas = new Canvas(800, 600);
+
+    public CollisionOverlay() {
+        canvas.setMouseTransparent(true);
+        canvas.setVisible(false);
+    }
+
+    public Node getNode() {
+        return canvas;
+    }
+
+    public void toggle() {
+        canvas.setVisible(!canvas.isVisible());
+        if (!canvas.isVisible()) {
+            canvas.getGraphicsContext2D().clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        }
+    }
+
+    public boolean isVisible() {
+        return canvas.isVisible();
+    }
+
+    /**
+     * Zeichnet Körper und Reichweite beider Kämpfer.
+     */
+    public void render(MatchSimulation simulation) {
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        g.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        g.setLineWidth(1);
+        drawFighter(g, simulation.getPlayer1(), simulation.getPlayer2());
+        drawFighter(g, simulation.getPlayer2(), simulation.getPlayer1());
+
+        // Projectiles are tested as points against the hurt zones
+        Projectiles projectiles = simulation.getProjectiles();
+        g.setStroke(HURT);
+        for (int i = 0; i < projectiles.getCount(); i++) {
+            g.strokeLine(projectiles.getX(i) - 3, projectiles.getY(i), projectiles.getX(i) + 3, projectiles.getY(i));
+            g.strokeLine(projectiles.getX(i), projectiles.getY(i) - 3, projectiles.getX(i), projectiles.getY(i) + 3);
+        }
+    }
+
+    /**
+     * Körper als Box, dazu die Reichweite und die Trefferzone für Projektile.
+     * Nahkampf misst Mitte zu Mitte - der Bereich zeigt, wo die Mitte des Gegners liegen muss.
+     * Fernkampf zeigt, wie weit die Projektile fliegen (immer zur Seite des Gegners).
+     */
+    private void drawFighter(GraphicsContext g, Fighter fighter, Fighter opponent) {
+        double range = fighter.getAttackRange();
+        double centerX = fighter.getCenterX();
+        double reachX;
+        double reachY;
+        double reachWidth;
+        double reachHeight;
+        if (fighter.isRanged()) {
+            reachX = opponent.getCenterX() >= centerX ? centerX : centerX - range;
+            reachY = fighter.getCenterY() - Projectiles.HURT_HALF_HEIGHT;
+            reachWidth = range;
+            reachHeight = 2 * Projectiles.HURT_HALF_HEIGHT;
+        } else {
+            reachX = centerX - range;
+            reachY = fighter.getY();
+            reachWidth = 2 * range;
+            reachHeight = Fighter.HEIGHT;
+        }
+        g.setFill(REACH);
+        g.fillRect(reachX, reachY, reachWidth, reachHeight);
+        g.setStroke(REACH_BORDER);
+        g.strokeRect(reachX, reachY, reachWidth, reachHeight);
+
+        g.setStroke(HURT);
+        g.strokeRect(centerX - Projectiles.HURT_HALF_WIDTH, fighter.getCenterY() - Projectiles.HURT_HALF_HEIGHT,
+                     2 * Projectiles.HURT_HALF_WIDTH, 2 * Projectiles.HURT_HALF_HEIGHT);
+
+        g.setStroke(BODY);
+        g.strokeRect(fighter.getX(), fighter.getY(), Fighter.WIDTH, Fighter.HEIGHT);
+        g.strokeLine(fighter.getCenterX(), fighter.getY(), fighter.getCenterX(), fighter.getY() + Fighter.HEIGHT);
+    }
+}
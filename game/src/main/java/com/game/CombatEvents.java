@@ -0,0 +1,162 @@
+package com.game;
+
+import java.util.Arrays;
+
+/**
+ * Was im Kampf passiert ist - die {@link MatchSimulation} meldet es hier, HUD, Statistik und Arena hören zu.
+ * So muss niemand mehr jeden Tick die Lebenspunkte abfragen, gearbeitet wird nur, wenn sich etwas getan hat.
+ *
+ * Die Ereignisse liegen in einem Ringpuffer aus primitiven Arrays, {@link #dispatch()} reicht sie
+ * an die Zuhörer weiter. Dabei wird nichts angelegt: jeder Zuhörer bekommt dasselbe {@link Event},
+ * das immer auf den aktuellen Eintrag zeigt - also nur während des Aufrufs lesen, nicht aufheben.
+ * Ohne Zuhörer wird gar nichts gespeichert, Kopien für Rollback, KI oder Balancing kosten also nichts.
+ *
+ * Nicht thread-safe - gehört zu dem Thread, der die Simulation rechnet.
+ */
+public final class CombatEvents {
+    /** Die Arten von Ereignissen */
+    public enum Type {
+        /** Treffer: {@link Event#fighter()} hat {@link Event#amount()} Schaden verursacht */
+        DAMAGE,
+        /**
+         * Nahkampf ins Leere - der Gegner war außer Reichweite (Projektile, die nichts treffen, zählen nicht).
+         * Nur einmal pro Tastendruck, eine gehaltene Taste meldet nicht jeden Tick.
+         */
+        WHIFF,
+        /** Der Spezialangriff ist wieder bereit ({@link Event#strong()} ist dabei immer gesetzt) */
+        COOLDOWN_READY,
+        /** K.O. - {@link Event#fighter()} hat gewonnen */
+        KO,
+        /** Der Zustand wurde komplett ersetzt (Reset, Rollback) - alles neu lesen */
+        RESYNC
+    }
+
+    /**
+     * Bekommt die Ereignisse in der Reihenfolge, in der sie passiert sind.
+     */
+    public interface Listener {
+        void onCombatEvent(Event event);
+    }
+
+    /**
+     * Sicht auf ein Ereignis im Puffer.
+     */
+    public final class Event {
+        private int index;
+
+        private Event() {}
+
+        public Type type() { return TYPES[types[index]]; }
+        public long tick() { return ticks[index]; }
+        /** 0 für Spieler 1, 1 für Spieler 2 (im Free-for-all der Index) - bei DAMAGE der Angreifer */
+        public int fighter() { return fighters[index]; }
+        /** Bei DAMAGE der Getroffene, sonst im 1v1 der andere Kämpfer (bei KO also der Verlierer), im Free-for-all -1 */
+        public int target() { return targets[index]; }
+        /** Schaden bei DAMAGE, sonst 0 */
+        public int amount() { return amounts[index]; }
+        /** Lebenspunkte des Getroffenen nach dem Treffer (DAMAGE), sonst 0 */
+        public int health() { return healths[index]; }
+        /** Ob es um den Spezialangriff geht */
+        public boolean strong() { return strongs[index]; }
+    }
+
+    private static final Type[] TYPES = Type.values();
+    /** Pro Tick kommen meist nur ein paar Ereignisse, ein voller Projektil-Fächer sind bis zu 2 x 16 - dispatch() läuft jeden Tick */
+    private static final int CAPACITY = 256;
+    private static final int MASK = CAPACITY - 1;
+
+    private final byte[] types = new byte[CAPACITY];
+    private final long[] ticks = new long[CAPACITY];
+    private final byte[] fighters = new byte[CAPACITY];
+    private final byte[] targets = new byte[CAPACITY];
+    private final int[] amounts = new int[CAPACITY];
+    private final int[] healths = new int[CAPACITY];
+    private final boolean[] strongs = new boolean[CAPACITY];
+
+    private final Event event = new Event();
+    private Listener[] listeners = new Listener[0];
+    /** Nächster freier bzw. nächster zu verteilender Eintrag, läuft einfach weiter */
+    private long written = 0;
+    private long dispatched = 0;
+    private boolean dispatching = false;
+
+    /**
+     * Meldet einen Zuhörer an. Ändert sich selten, darum wird das Array einfach kopiert.
+     */
+    public void subscribe(Listener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    public void unsubscribe(Listener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                Listener[] remaining = new Listener[listeners.length - 1];
+                System.arraycopy(listeners, 0, remaining, 0, i);
+                System.arraycopy(listeners, i + 1, remaining, i, listeners.length - i - 1);
+                listeners = remaining;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Ob überhaupt jemand zuhört - sonst braucht die Simulation gar nicht erst zu melden.
+     */
+    public boolean hasListeners() {
+        return listeners.length > 0;
+    }
+
+    void publish(Type type, long tick, int fighter, int target, int amount, int health, boolean strong) {
+        if (listeners.length == 0) {
+            return;
+        }
+        if (written - dispatched == CAPACITY) {
+            // Nobody dispatched for a long time - drop the backlog, listeners re-read everything
+            dispatched = written;
+            put(Type.RESYNC, tick, 0, -1, 0, 0, false);
+        }
+        put(type, tick, fighter, target, amount, health, strong);
+    }
+
+    private void put(Type type, long tick, int fighter, int target, int amount, int health, boolean strong) {
+        int i = (int) (written & MASK);
+        types[i] = (byte) type.ordinal();
+        ticks[i] = tick;
+        fighters[i] = (byte) fighter;
+        targets[i] = (byte) target;
+        amounts[i] = amount;
+        healths[i] = health;
+        strongs[i] = strong;
+        written++;
+    }
+
+    /**
+     * Reicht alle neuen Ereignisse an die Zuhörer weiter.
+     * Ereignisse, die dabei neu entstehen, kommen noch im selben Aufruf dran.
+     */
+    public void dispatch() {
+        if (dispatching) {
+            return;
+        }
+        dispatching = true;
+        try {
+            while (dispatched < written) {
+                event.index = (int) (dispatched & MASK);
+                dispatched++;
+                for (Listener listener : listeners) {
+                    listener.onCombatEvent(event);
+                }
+            }
+        } finally {
+            dispatching = false;
+        }
+    }
+
+    /**
+     * Verwirft alles, was noch nicht verteilt wurde.
+     */
+    public void clear() {
+        dispatched = written;
+    }
+}
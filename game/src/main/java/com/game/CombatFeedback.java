@@ -0,0 +1,69 @@
+package com.game;
+
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+
+/**
+ * Kurze Hinweise unter den Stats: "Miss!", wenn ein Nahkampfangriff ins Leere geht,
+ * "Special ready!", sobald der Spezialangriff wieder bereit ist.
+ * Hört nur auf die {@link CombatEvents} und liegt wie die Kollisionsboxen über jedem Renderer.
+ */
+public final class CombatFeedback implements CombatEvents.Listener {
+    private static final int MISS_TICKS = MatchSimulation.ticks(500);
+    private static final int READY_TICKS = MatchSimulation.ticks(1000);
+
+    private final Label[] labels = { label(50), label(550) };
+    /** Ab diesem Tick wird der Hinweis wieder ausgeblendet */
+    private final long[] hideAtTick = new long[2];
+    private final Pane pane = new Pane(labels[0], labels[1]);
+
+    public CombatFeedback() {
+        pane.setMouseTransparent(true);
+    }
+
+    private static Label label(double x) {
+        Label label = new Label();
+        label.setLayoutX(x);
+        label.setLayoutY(80);
+        label.setStyle("-fx-font-weight: bold;");
+        label.setVisible(false);
+        return label;
+    }
+
+    public Node getNode() {
+        return pane;
+    }
+
+    @Override
+    public void onCombatEvent(CombatEvents.Event event) {
+        switch (event.type()) {
+            case WHIFF -> show(event.fighter(), "Miss!", Color.GRAY, event.tick() + MISS_TICKS);
+            case COOLDOWN_READY -> show(event.fighter(), "Special ready!", Color.DARKORANGE, event.tick() + READY_TICKS);
+            case RESYNC -> {
+                labels[0].setVisible(false);
+                labels[1].setVisible(false);
+            }
+            default -> { }
+        }
+    }
+
+    private void show(int slot, String text, Color color, long hideAt) {
+        labels[slot].setText(text);
+        labels[slot].setTextFill(color);
+        labels[slot].setVisible(true);
+        hideAtTick[slot] = hideAt;
+    }
+
+    /**
+     * Blendet abgelaufene Hinweise aus - einmal pro Bild mit dem aktuellen Tick.
+     */
+    public void update(long tick) {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].isVisible() && tick >= hideAtTick[i]) {
+                labels[i].setVisible(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.game;
+
+/**
+ * Steuert einen Kämpfer ohne Tastatur - per Skript oder KI.
+ * Bekommt jeden Tick das Match zu sehen und liefert dieselben Eingabe-Bits,
+ * die sonst aus dem {@link InputBuffer} kommen (siehe MatchSimulation.INPUT_*).
+ */
+public interface Controller {
+
+    /**
+     * Die Eingabe für den nächsten Tick.
+     * Das Match darf dabei nur gelesen, nicht verändert werden.
+     * @param slot 0 für Spieler 1, 1 für Spieler 2
+     */
+    int nextInput(MatchSimulation match, int slot);
+}
@@ -0,0 +1,227 @@
+package com.game;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Der Computer-Gegner für den Story Mode.
+ * Alle paar Ticks wird der aktuelle Spielstand kopiert und auf Worker-Threads
+ * mit Monte-Carlo-Rollouts durchgespielt: jede mögliche Aktion wird oft ausprobiert,
+ * danach spielen beide Seiten skriptgesteuert weiter, am Ende zählt wer mehr Schaden gemacht hat.
+ *
+ * Der Gameloop wartet dabei nie auf die Suche - er nimmt einfach das beste Ergebnis,
+ * das nach Ablauf des Zeitbudgets da ist. Das Budget ist kürzer als ein Tick,
+ * die KI reagiert also einen Tick verzögert, so wie ein Mensch auch (nur schneller).
+ */
+public final class CpuController implements Controller, AutoCloseable {
+    /** Die Aktionen, zwischen denen die KI wählt */
+    private static final int[] ACTIONS = {
+        0,
+        MatchSimulation.INPUT_LEFT,
+        MatchSimulation.INPUT_RIGHT,
+        MatchSimulation.INPUT_JUMP,
+        MatchSimulation.INPUT_ATTACK,
+        MatchSimulation.INPUT_SPECIAL,
+        MatchSimulation.INPUT_LEFT | MatchSimulation.INPUT_ATTACK,
+        MatchSimulation.INPUT_RIGHT | MatchSimulation.INPUT_ATTACK,
+    };
+    /** Alle 6 Ticks (100 ms) wird neu entschieden, dazwischen wird die Aktion gehalten */
+    private static final int DECISION_TICKS = 6;
+    /** So weit schaut ein Rollout in die Zukunft */
+    private static final int HORIZON_TICKS = 2 * MatchSimulation.TICKS_PER_SECOND;
+    /** Erkundung vs. Ausnutzung bei der Aktionswahl (UCB1) */
+    private static final double EXPLORATION = 0.7;
+    /** Punkte werden als long summiert, damit mehrere Threads atomar addieren können */
+    private static final double SCORE_SCALE = 1_000_000;
+
+    private final long budgetNanos;
+    private final int threads;
+    private final ExecutorService workers;
+
+    /** Jeder Worker hat seine eigene Kopie zum Durchspielen */
+    private final ThreadLocal<MatchSimulation> scratch = new ThreadLocal<>();
+
+    private Search pending;
+    private int currentAction = 0;
+    private long nextDecisionTick = 0;
+    private long seed = 0;
+
+    /**
+     * @param budgetMillis Denkzeit pro Entscheidung, sollte unter einem Tick (16 ms) liegen
+     * @param threads wie viele Worker gleichzeitig rechnen
+     */
+    public CpuController(int budgetMillis, int threads) {
+        this.budgetNanos = budgetMillis * 1_000_000L;
+        this.threads = Math.max(1, threads);
+        this.workers = Executors.newFixedThreadPool(this.threads, runnable -> {
+            Thread thread = new Thread(runnable, "cpu-opponent");
+            thread.setDaemon(true);
+            // The game loop always comes first
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Eine KI mit passenden Standardwerten: 8 ms Denkzeit, alle Kerne bis auf einen (max. 4).
+     */
+    public static CpuController createDefault() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        return new CpuController(8, Math.min(4, cores - 1));
+    }
+
+    @Override
+    public int nextInput(MatchSimulation match, int slot) {
+        if (pending != null && pending.isDone()) {
+            currentAction = ACTIONS[pending.bestAction()];
+            pending = null;
+        }
+        if (pending == null && match.getTick() >= nextDecisionTick && !match.isGameOver()) {
+            pending = startSearch(match, slot);
+            nextDecisionTick = match.getTick() + DECISION_TICKS;
+        }
+        return currentAction;
+    }
+
+    /**
+     * Vergisst die laufende Entscheidung - z.B. bei einer neuen Runde.
+     */
+    public void reset() {
+        pending = null;
+        currentAction = 0;
+        nextDecisionTick = 0;
+    }
+
+    /**
+     * Kopiert das Match und lässt die Worker bis zum Ablauf des Budgets suchen.
+     * Im Gameloop kostet das nur die Kopie.
+     */
+    private Search startSearch(MatchSimulation match, int slot) {
+        MatchSimulation root = new MatchSimulation(match.getPlayer1().getType(), match.getPlayer2().getType());
+        root.copyFrom(match);
+        Search search = new Search(root, slot, System.nanoTime() + budgetNanos);
+        for (int i = 0; i < threads; i++) {
+            long workerSeed = seed++;
+            workers.execute(() -> search.run(scratch(root), new Random(workerSeed)));
+        }
+        return search;
+    }
+
+    private MatchSimulation scratch(MatchSimulation root) {
+        MatchSimulation copy = scratch.get();
+        if (copy == null) {
+            copy = new MatchSimulation(root.getPlayer1().getType(), root.getPlayer2().getType());
+            scratch.set(copy);
+        }
+        return copy;
+    }
+
+    /**
+     * Beendet die Worker-Threads.
+     */
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Eine Suche von einem festen Spielstand aus.
+     * Die Statistik pro Aktion teilen sich alle Worker.
+     */
+    private final class Search {
+        private final MatchSimulation root;
+        private final int slot;
+        private final long deadline;
+        private final AtomicLongArray visits = new AtomicLongArray(ACTIONS.length);
+        private final AtomicLongArray scores = new AtomicLongArray(ACTIONS.length);
+
+        Search(MatchSimulation root, int slot, long deadline) {
+            this.root = root;
+            this.slot = slot;
+            this.deadline = deadline;
+        }
+
+        boolean isDone() {
+            return System.nanoTime() >= deadline;
+        }
+
+        void run(MatchSimulation sim, Random random) {
+            Controller self = new ScriptedController(random);
+            Controller opponent = new ScriptedController(random);
+            while (!isDone()) {
+                int action = selectAction();
+                sim.copyFrom(root);
+                double score = rollout(sim, ACTIONS[action], self, opponent);
+                scores.addAndGet(action, (long) (score * SCORE_SCALE));
+                visits.incrementAndGet(action);
+            }
+        }
+
+        /**
+         * UCB1: erst jede Aktion einmal, danach die mit dem besten Verhältnis aus
+         * bisherigem Ergebnis und Unsicherheit.
+         */
+        private int selectAction() {
+            long total = 0;
+            for (int i = 0; i < ACTIONS.length; i++) {
+                long n = visits.get(i);
+                if (n == 0) {
+                    return i;
+                }
+                total += n;
+            }
+            double logTotal = Math.log(total);
+            int best = 0;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < ACTIONS.length; i++) {
+                long n = visits.get(i);
+                double value = scores.get(i) / SCORE_SCALE / n + EXPLORATION * Math.sqrt(logTotal / n);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = i;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Hält die Aktion für eine Entscheidungsperiode und lässt dann beide Seiten skriptgesteuert weiterspielen.
+         * @return ungefähr -1 (klar verloren) bis +1 (klar gewonnen)
+         */
+        private double rollout(MatchSimulation sim, int action, Controller self, Controller opponent) {
+            Fighter me = sim.getPlayer(slot);
+            Fighter them = sim.getPlayer(1 - slot);
+            int myHealth = me.getHealth();
+            int theirHealth = them.getHealth();
+            for (int t = 0; t < HORIZON_TICKS && !sim.isGameOver(); t++) {
+                int mine = t < DECISION_TICKS ? action : self.nextInput(sim, slot);
+                int theirs = opponent.nextInput(sim, 1 - slot);
+                if (slot == 0) {
+                    sim.step(mine, theirs);
+                } else {
+                    sim.step(theirs, mine);
+                }
+            }
+            double score = ((theirHealth - them.getHealth()) - (myHealth - me.getHealth())) / (double) me.getMaxHealth();
+            if (sim.isGameOver()) {
+                score += sim.getWinner() == slot + 1 ? 1 : -1;
+            }
+            return score;
+        }
+
+        /**
+         * Die am häufigsten gewählte Aktion - robuster als die mit dem besten Schnitt.
+         */
+        int bestAction() {
+            int best = 0;
+            for (int i = 1; i < ACTIONS.length; i++) {
+                if (visits.get(i) > visits.get(best)) {
+                    best = i;
+                }
+            }
+            return best;
+        }
+    }
+}
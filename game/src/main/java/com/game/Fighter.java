@@ -0,0 +1,305 @@
+package com.game;
+
+/**
+ * Der Kämpfer als reines Datenmodell - ganz ohne JavaFX.
+ * Position, Physik, Cooldowns und Leben stecken hier drin,
+ * {@link Character} malt das Ganze nur noch an.
+ * Die Charakterwerte stehen in {@link Archetypes}, der Kämpfer merkt sich nur seine Nummer darin.
+ */
+public final class Fighter {
+
+    /** Größe der Kollisionsbox - die Sprites sind quadratisch und 300px hoch */
+    public static final double WIDTH = 300;
+    public static final double HEIGHT = 300;
+
+    /** Arena-Grenzen */
+    public static final double ARENA_WIDTH = 800;
+    public static final double GROUND_Y = 450;
+
+    private static final int ATTACK_COOLDOWN_TICKS = MatchSimulation.ticks(500);  // Halbe Sekunde Cooldown
+    private static final int STRONG_ATTACK_COOLDOWN_TICKS = MatchSimulation.ticks(3000);  // 3 Sekunden für Spezialangriff
+    private static final int HIT_FLASH_TICKS = MatchSimulation.ticks(100);
+
+    /** Physik in Pixel pro Sekunde - unabhängig davon wie oft getickt wird */
+    private static final double TICK_SECONDS = 1.0 / MatchSimulation.TICKS_PER_SECOND;
+    private static final double GRAVITY = 1800;  // px/s², früher 0.5 pro Frame bei 60 FPS
+    private static final double JUMP_FORCE = -720;  // px/s, früher -12 pro Frame
+    private static final double SPEED_UNIT = 60;  // Stats-Speed ist in Pixel pro 1/60 Sekunde angegeben
+
+    /** Charakter: Name, Nummer und die Tabelle mit den Werten - die Tabelle wird bei {@link #reset()} neu geholt */
+    private final String type;
+    private Archetypes table;
+    private int archetype;
+    private final double startX;
+    /** Rechter Rand - im Free-for-all ist die Arena breiter, gehört nicht zum Zustand eines Ticks */
+    private double arenaWidth = ARENA_WIDTH;
+
+    /** Zustand, der sich jeden Tick ändert */
+    private double x;
+    private double y;
+    private double previousX;
+    private double previousY;
+    private double velocityY = 0;
+    private boolean isJumping = false;
+    private int health = 100;
+    private int maxHealth = 100;
+    private boolean facingRight = true;
+    private boolean canAttack = true;
+    private long lastAttackTick;
+    private boolean canUseStrongAttack = true;
+    private long lastStrongAttackTick;
+    private long lastHitTick = -HIT_FLASH_TICKS;
+
+    /**
+     * Erstellt einen neuen Kämpfer am Boden.
+     * Unbekannte Typen werden wie gehabt zum Warrior.
+     */
+    public Fighter(String type, double x) {
+        this.type = type;
+        this.startX = x;
+        reset();
+    }
+
+    /**
+     * Der Sprung!
+     * Nichts spektakuläres, aber hey - es funktioniert!
+     */
+    public void jump() {
+        if (!isJumping) {
+            velocityY = JUMP_FORCE;
+            isJumping = true;
+        }
+    }
+
+    /**
+     * Bewegung nach links
+     * Checkt auch gleich ob wir nicht aus der Arena fallen
+     */
+    public void moveLeft() {
+        double newX = x - table.speed(archetype) * SPEED_UNIT * TICK_SECONDS;
+        if (newX >= 0) {
+            x = newX;
+        }
+        facingRight = false;
+    }
+
+    /**
+     * Bewegung nach rechts
+     * Checkt auch gleich ob wir nicht aus der Arena fallen
+     */
+    public void moveRight() {
+        double newX = x + table.speed(archetype) * SPEED_UNIT * TICK_SECONDS;
+        if (newX <= arenaWidth - WIDTH) {
+            x = newX;
+        }
+        facingRight = true;
+    }
+
+    /**
+     * Merkt sich die Position vom Anfang des Ticks.
+     * Daraus wird beim Rendern zwischen zwei Ticks interpoliert.
+     */
+    public void beginTick() {
+        previousX = x;
+        previousY = y;
+    }
+
+    /**
+     * Ein Physik-Tick.
+     * Kümmert sich um Schwerkraft, Sprunghöhe und Cooldowns.
+     */
+    public void update(long tick) {
+        // Gravity and jumping
+        if (isJumping) {
+            y += velocityY * TICK_SECONDS;
+            velocityY += GRAVITY * TICK_SECONDS;
+
+            // Check for ground collision
+            if (y >= GROUND_Y - HEIGHT) {
+                y = GROUND_Y - HEIGHT;  // Place on floor
+                velocityY = 0;
+                isJumping = false;
+            }
+        }
+
+        // Attack cooldown
+        if (!canAttack && tick - lastAttackTick > ATTACK_COOLDOWN_TICKS) {
+            canAttack = true;
+        }
+    }
+
+    /**
+     * Führt einen Nahkampfangriff aus.
+     * Prüft Reichweite von Mitte zu Mitte und berechnet den Schaden.
+     */
+    public boolean attack(Fighter target, boolean isSpecialAttack, long tick) {
+        if (!canAttack) return false;
+
+        double distance = Math.abs(getCenterX() - target.getCenterX());
+
+        if (distance <= table.range(archetype)) {
+            int damage = table.damage(archetype);
+            int attackDamage = isSpecialAttack ? damage * 2 : damage;
+            target.takeDamage(attackDamage, tick);
+            setAttackCooldown(tick);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Verarbeitet eingehenden Schaden.
+     * Merkt sich den Tick für das Aufblinken beim Rendern.
+     */
+    public void takeDamage(int damage, long tick) {
+        health -= damage;
+        if (health < 0) health = 0;
+        lastHitTick = tick;
+    }
+
+    /**
+     * Setzt den Kämpfer zurück.
+     * Wird nach Spielende oder für neue Runde aufgerufen - neu geladene Charakterwerte gelten ab hier.
+     */
+    public void reset() {
+        table = Archetypes.get();
+        archetype = table.id(type);
+        x = startX;
+        y = GROUND_Y - HEIGHT;
+        previousX = x;
+        previousY = y;
+        velocityY = 0;
+        isJumping = false;
+        facingRight = true;
+        health = maxHealth;
+        canAttack = true;
+        canUseStrongAttack = true;
+        lastAttackTick = 0;
+        lastStrongAttackTick = 0;
+        lastHitTick = -HIT_FLASH_TICKS;
+    }
+
+    /**
+     * Übernimmt den kompletten Zustand eines anderen Kämpfers desselben Typs.
+     * Erzeugt keine neuen Objekte - praktisch um Matches zu kopieren.
+     */
+    public void copyFrom(Fighter other) {
+        table = other.table;
+        arenaWidth = other.arenaWidth;
+        archetype = other.archetype;
+        x = other.x;
+        y = other.y;
+        previousX = other.previousX;
+        previousY = other.previousY;
+        velocityY = other.velocityY;
+        isJumping = other.isJumping;
+        health = other.health;
+        maxHealth = other.maxHealth;
+        facingRight = other.facingRight;
+        canAttack = other.canAttack;
+        lastAttackTick = other.lastAttackTick;
+        canUseStrongAttack = other.canUseStrongAttack;
+        lastStrongAttackTick = other.lastStrongAttackTick;
+        lastHitTick = other.lastHitTick;
+    }
+
+    /**
+     * Prüfsumme über den kompletten Zustand.
+     * Zwei Rechner, die dieselben Eingaben simuliert haben, müssen hier gleich sein.
+     */
+    public long checksum() {
+        long hash = type.hashCode();
+        hash = hash * 31 + Double.doubleToLongBits(x);
+        hash = hash * 31 + Double.doubleToLongBits(y);
+        hash = hash * 31 + Double.doubleToLongBits(velocityY);
+        hash = hash * 31 + (isJumping ? 1 : 0);
+        hash = hash * 31 + health;
+        hash = hash * 31 + (facingRight ? 1 : 0);
+        hash = hash * 31 + (canAttack ? 1 : 0);
+        hash = hash * 31 + lastAttackTick;
+        hash = hash * 31 + (canUseStrongAttack ? 1 : 0);
+        hash = hash * 31 + lastStrongAttackTick;
+        hash = hash * 31 + lastHitTick;
+        return hash;
+    }
+
+    /**
+     * Für breitere Arenen, siehe {@link BrawlSimulation}.
+     */
+    void setArenaWidth(double width) {
+        arenaWidth = width;
+    }
+
+    /**
+     * Startet die Abklingzeit für normale Angriffe
+     */
+    public void setAttackCooldown(long tick) {
+        canAttack = false;
+        lastAttackTick = tick;
+    }
+
+    /**
+     * Prüft ob ein Spezialangriff verfügbar ist
+     */
+    public boolean canUseStrongAttack(long tick) {
+        if (!canUseStrongAttack && tick - lastStrongAttackTick >= STRONG_ATTACK_COOLDOWN_TICKS) {
+            canUseStrongAttack = true;
+        }
+        return canUseStrongAttack;
+    }
+
+    /**
+     * Wie {@link #canUseStrongAttack(long)}, ändert aber nichts am Zustand -
+     * für Controller, die nur nachsehen wollen.
+     */
+    public boolean isStrongAttackReady(long tick) {
+        return canUseStrongAttack || tick - lastStrongAttackTick >= STRONG_ATTACK_COOLDOWN_TICKS;
+    }
+
+    /**
+     * Startet die Abklingzeit für Spezialangriffe
+     */
+    public void setStrongAttackCooldown(long tick) {
+        canUseStrongAttack = false;
+        lastStrongAttackTick = tick;
+    }
+
+    /**
+     * Ob der Treffer-Blinkeffekt gerade aktiv ist
+     */
+    public boolean isHitFlashing(long tick) {
+        return tick - lastHitTick < HIT_FLASH_TICKS;
+    }
+
+    // Various getter methods for character properties
+    public int getHealth() { return health; }
+    public int getMaxHealth() { return maxHealth; }
+    public int getDefense() { return table.defense(archetype); }
+    public int getAttackSpeed() { return table.attackSpeed(archetype); }
+    public String getDescription() { return table.description(archetype); }
+    public int getDamage() { return table.damage(archetype); }
+    public double getSpeed() { return table.speed(archetype); }
+    public double getAttackRange() { return table.range(archetype); }
+    public String getType() { return type; }
+    /** Nummer in {@link Archetypes} - für Vergleiche im Kampf statt des Namens */
+    public int getArchetype() { return archetype; }
+    /** Fernkämpfer treffen nur auf gleicher Höhe, dafür zählt der Abstand statt der Mitte */
+    public boolean isRanged() { return table.isRanged(archetype); }
+    public boolean canAttack() { return canAttack; }
+    public boolean isFacingRight() { return facingRight; }
+    public boolean isJumping() { return isJumping; }
+    public double getVelocityY() { return velocityY; }
+
+    // Hilfsmethoden für Dimensionen und Position
+    public double getX() { return x; }
+    public double getY() { return y; }
+    public double getCenterX() { return x + WIDTH / 2; }
+
+    /**
+     * Position zwischen letztem und aktuellem Tick.
+     * @param alpha 0 = Anfang des Ticks, 1 = aktueller Stand
+     */
+    public double getRenderX(double alpha) { return previousX + (x - previousX) * alpha; }
+    public double getRenderY(double alpha) { return previousY + (y - previousY) * alpha; }
+    public double getCenterY() { return y + HEIGHT / 2; }
+}
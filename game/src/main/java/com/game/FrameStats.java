@@ -0,0 +1,65 @@
+package com.game;
+
+/**
+ * Histogramm für Frame- und Tickzeiten.
+ * Feste Buckets à 50µs bis 100ms, alles darüber landet im letzten Bucket.
+ * Einmal angelegt wird hier nie wieder etwas allokiert.
+ */
+public final class FrameStats {
+    private static final long BUCKET_NANOS = 50_000;
+    private static final int BUCKETS = 2000;
+
+    private final int[] counts = new int[BUCKETS + 1];
+    private long count;
+    private long total;
+    private long max;
+
+    /**
+     * Trägt eine gemessene Dauer ein.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        int bucket = (int) Math.min(nanos / BUCKET_NANOS, BUCKETS);
+        counts[bucket]++;
+        count++;
+        total += nanos;
+        if (nanos > max) {
+            max = nanos;
+        }
+    }
+
+    /**
+     * Perzentil auf Bucket-Genauigkeit (Obergrenze des Buckets).
+     * @param quantile z.B. 0.5 für p50, 0.99 für p99
+     */
+    public long percentile(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i <= BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i == BUCKETS ? max : Math.min((i + 1) * BUCKET_NANOS, max);
+            }
+        }
+        return max;
+    }
+
+    public long getCount() { return count; }
+    public long getMax() { return max; }
+    public long getMean() { return count == 0 ? 0 : total / count; }
+
+    /**
+     * Leert das Histogramm für das nächste Messfenster.
+     */
+    public void reset() {
+        java.util.Arrays.fill(counts, 0);
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+}
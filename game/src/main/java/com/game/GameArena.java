@@ -4,10 +4,6 @@ import javafx.animation.AnimationTimer;
 import javafx.scene.layout.Pane;
 import javafx.scene.control.Label;
 import javafx.scene.control.Button;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Rectangle;
-import java.util.HashSet;
-import java.util.Set;
 import javafx.scene.input.KeyCode;
 import javafx.scene.Scene;
 import javafx.scene.layout.HBox;
@@ -23,297 +19,627 @@ public class GameArena {
     /** Container für alle visuellen Spielelemente */
     private Pane gamePane;
     
-    /** Die beiden Kämpfer */
-    private Character player1;
-    private Character player2;
-    
-    /** UI-Elemente zur Anzeige von Gesundheit und Stats */
-    private Label healthLabel1;
-    private Label healthLabel2;
-    private Rectangle healthBar1; 
-    private Rectangle healthBar2;
-    private Label player1StatsLabel;
-    private Label player2StatsLabel;
+    /** Die eigentliche Spiellogik - läuft auch ohne JavaFX */
+    private MatchSimulation simulation;
+
+    /** Zeichnet Boden, Kämpfer, Lebensbalken und Stats - mit F4 umschaltbar */
+    private ArenaRenderer renderer;
+    private final SceneGraphRenderer sceneGraphRenderer = new SceneGraphRenderer();
+    private CanvasRenderer canvasRenderer;
+
+    /** Game Over Anzeige - wird einmal gebaut und nur ein-/ausgeblendet */
+    private Label gameOverLabel;
+    private HBox gameOverButtons;
+    private Button restartButton;
+    private Button nextFightButton;
+
+    /** Performance-Anzeige, mit F3 umschaltbar */
+    private final PerformanceOverlay performanceOverlay = new PerformanceOverlay();
+    /** "Miss!" und "Special ready!" unter den Stats */
+    private final CombatFeedback feedback = new CombatFeedback();
+    /** Echte Kollisionsboxen über dem Renderer, mit F5 umschaltbar */
+    private final CollisionOverlay collisionOverlay = new CollisionOverlay();
+
+    /** Der Gameloop - läuft nur solange die Arena angezeigt wird */
+    private AnimationTimer gameLoop;
+    private boolean running = false;
     
-    /** Speichert aktuell gedrückte Tasten und Spielstatus */
-    private Set<KeyCode> activeKeys;
+    /** Tastatureingaben als Bitmasken pro Spieler und Spielstatus */
+    private final InputBuffer input = new InputBuffer(performanceOverlay.getInputLatency());
     private boolean gameOver = false;
     private GameManager gameManager;
+    /** Die Simulation hat ein K.O. gemeldet, das noch nicht abgehandelt ist */
+    private boolean koPending = false;
+
+    /** Aufzeichnung des laufenden Matches bzw. das Replay, das gerade abgespielt wird */
+    private ReplayRecorder recorder;
+    private ReplayReader replay;
+
+    /** Computer-Gegner auf Seite 2 im Story Mode, sonst null */
+    private CpuController cpu;
+
+    /** Verbindung zum Gegner bei einem Online-Match */
+    private RollbackSession online;
+    private int onlineStalledTicks = 0;
+    /** So lange ohne Antwort, dann gilt die Verbindung als verloren */
+    private static final int CONNECTION_TIMEOUT_TICKS = 5 * MatchSimulation.TICKS_PER_SECOND;
     
-    /** Timing-Einstellungen für flüssige 60 FPS */
-    private static final long FRAME_TIME = 16_666_667;
-    private long lastUpdate = 0;
+    /** Timing: feste Tick-Länge, egal wie schnell der Monitor ist */
+    private static final long TICK_NANOS = 1_000_000_000L / MatchSimulation.TICKS_PER_SECOND;
+    /** Maximal so viele Ticks pro Bild nachholen, sonst schaukelt sich ein Hänger auf */
+    private static final int MAX_CATCH_UP_TICKS = 8;
+    private long lastFrame = 0;
+    private long accumulator = 0;
 
     /**
      * Erstellt eine neue Arena mit zwei Kämpfern.
      * Richtet die komplette Spielfläche ein - von Boden bis UI.
+     * Die Arena wird für alle weiteren Matches wiederverwendet,
+     * der Gameloop läuft erst nach {@link #start()}.
      */
     public GameArena(String p1Type, String p2Type, GameManager gameManager) {
         this.gameManager = gameManager;
         gamePane = new Pane();
         gamePane.setPrefSize(800, 600);
-        activeKeys = new HashSet<>();
         
-        // Create floor
-        Rectangle floor = new Rectangle(0, 500, 800, 100);
-        floor.setFill(Color.GRAY);
+        // Create the simulation and the renderer drawing it
+        simulation = new MatchSimulation(p1Type, p2Type);
+        renderer = Boolean.getBoolean("game.canvas") ? canvasRenderer() : sceneGraphRenderer;
+        renderer.setMatch(simulation);
+        performanceOverlay.setRenderer(renderer.getName());
+        simulation.events().subscribe(renderer);
+        simulation.events().subscribe(feedback);
+        simulation.events().subscribe(this::onCombatEvent);
         
-        // Create players at center positions
-        player1 = new Character(p1Type, 200, 300);  // X position is now center point
-        player2 = new Character(p2Type, 600, 300);  // X position is now center point
-        
-        setupHealthBars();
         setupControls();
-        startGameLoop();
+        setupGameOverScreen();
+        createGameLoop();
+        
+        // The renderer always stays the first child, everything else is UI on top
+        gamePane.getChildren().addAll(renderer.getNode(), feedback.getNode(), collisionOverlay.getNode(), gameOverLabel, gameOverButtons,
+                                      performanceOverlay.getNode());
+        updateStatsLabels();
+    }
+
+    private CanvasRenderer canvasRenderer() {
+        if (canvasRenderer == null) {
+            canvasRenderer = new CanvasRenderer();
+        }
+        return canvasRenderer;
+    }
+
+    /**
+     * Wechselt zwischen Scene-Graph und Canvas, mitten im Match.
+     */
+    private void toggleRenderer() {
+        simulation.events().unsubscribe(renderer);
+        renderer = renderer == sceneGraphRenderer ? canvasRenderer() : sceneGraphRenderer;
+        simulation.events().subscribe(renderer);
+        renderer.setMatch(simulation);
+        gamePane.getChildren().set(0, renderer.getNode());
+        performanceOverlay.setRenderer(renderer.getName());
+        updateStatsLabels();
+        render(1);
+    }
+
+    /**
+     * Baut die Game Over Anzeige einmalig auf.
+     * Bleibt unsichtbar bis jemand K.O. geht.
+     */
+    private void setupGameOverScreen() {
+        gameOverLabel = new Label();
+        gameOverLabel.setStyle("-fx-font-size: 24;");
+        gameOverLabel.setLayoutX(350);
+        gameOverLabel.setLayoutY(250);
         
-        gamePane.getChildren().addAll(floor, player1, player2, healthBar1, healthBar2, 
-                                    healthLabel1, healthLabel2);
+        gameOverButtons = new HBox(20);
+        gameOverButtons.setLayoutX(300);
+        gameOverButtons.setLayoutY(300);
         
-        // Add player stats labels
-        player1StatsLabel = new Label(String.format("%s - Wins: %d", 
-            gameManager.getPlayer1Name(), 
-            PlayerData.getWins(gameManager.getPlayer1Name())));
-        player2StatsLabel = new Label(String.format("%s - Wins: %d", 
-            gameManager.getPlayer2Name(), 
-            PlayerData.getWins(gameManager.getPlayer2Name())));
-            
-        player1StatsLabel.setLayoutX(50);
-        player1StatsLabel.setLayoutY(60);
-        player2StatsLabel.setLayoutX(550);
-        player2StatsLabel.setLayoutY(60);
+        restartButton = new Button("Play Again");
+        restartButton.setOnAction(e -> restartGame());
+        
+        Button characterSelectButton = new Button("Character Select");
+        characterSelectButton.setOnAction(e -> gameManager.showCharacterSelect());
+
+        // Only shown in Story Mode after beating the CPU
+        nextFightButton = new Button("Next Fight");
+        nextFightButton.setOnAction(e -> gameManager.nextStoryFight());
+        nextFightButton.setManaged(false);
+        nextFightButton.setVisible(false);
         
-        gamePane.getChildren().addAll(player1StatsLabel, player2StatsLabel);
+        gameOverButtons.getChildren().addAll(restartButton, characterSelectButton, nextFightButton);
+        setGameOverVisible(false);
+    }
+
+    private void setGameOverVisible(boolean visible) {
+        gameOverLabel.setVisible(visible);
+        gameOverButtons.setVisible(visible);
+        if (!visible) {
+            setNextFightVisible(false);
+        }
+    }
+
+    private void setNextFightVisible(boolean visible) {
+        nextFightButton.setManaged(visible);
+        nextFightButton.setVisible(visible);
     }
 
     /**
-     * Erstellt die Gesundheitsanzeigen für beide Spieler.
-     * Grüne Balken und Zahlen zeigen die verbleibenden Lebenspunkte.
+     * Zeigt Namen, Siege und Platz der beiden Spieler an.
      */
-    private void setupHealthBars() {
-        healthBar1 = new Rectangle(50, 20, 200, 20);
-        healthBar2 = new Rectangle(550, 20, 200, 20);
-        healthBar1.setFill(Color.GREEN);
-        healthBar2.setFill(Color.GREEN);
-        
-        healthLabel1 = new Label("100/100");
-        healthLabel2 = new Label("100/100");
-        healthLabel1.setLayoutX(50);
-        healthLabel1.setLayoutY(40);
-        healthLabel2.setLayoutX(550);
-        healthLabel2.setLayoutY(40);
+    private void updateStatsLabels() {
+        renderer.setStats(statsText(getPlayer1Name()), statsText(getPlayer2Name()));
+    }
+
+    private String statsText(String name) {
+        int rank = PlayerData.getRank(name);
+        return rank > 0
+            ? String.format("%s - Wins: %d (#%d)", name, PlayerData.getWins(name), rank)
+            : String.format("%s - Wins: %d", name, PlayerData.getWins(name));
+    }
+
+    /** Namen aus dem Replay oder vom Online-Gegner, sonst die aus dem GameManager */
+    private String getPlayer1Name() {
+        if (replay != null) {
+            return replay.getPlayer1Name();
+        }
+        if (online != null) {
+            return online.getPlayer1Name() != null ? online.getPlayer1Name() : "?";
+        }
+        return gameManager.getPlayer1Name();
+    }
+
+    private String getPlayer2Name() {
+        if (replay != null) {
+            return replay.getPlayer2Name();
+        }
+        if (online != null) {
+            return online.getPlayer2Name() != null ? online.getPlayer2Name() : "?";
+        }
+        return gameManager.getPlayer2Name();
     }
 
     /**
      * Konfiguriert die Tastatureingaben.
      * WASD + QE für Spieler 1, Pfeiltasten + KL für Spieler 2.
+     * F3 zeigt die Performance-Anzeige, F4 wechselt den Renderer, F5 zeigt die Kollisionsboxen.
      */
     private void setupControls() {
         gamePane.setFocusTraversable(true);
         gamePane.requestFocus();
         
         gamePane.setOnKeyPressed(e -> {
-            activeKeys.add(e.getCode());
-            System.out.println("Key pressed: " + e.getCode()); // Debug-Ausgabe
+            if (e.getCode() == KeyCode.F3) {
+                performanceOverlay.toggle();
+            } else if (e.getCode() == KeyCode.F4) {
+                toggleRenderer();
+            } else if (e.getCode() == KeyCode.F5) {
+                collisionOverlay.toggle();
+                render(1);
+            } else {
+                input.keyPressed(e.getCode(), System.nanoTime());
+            }
             e.consume();
         });
         
         gamePane.setOnKeyReleased(e -> {
-            activeKeys.remove(e.getCode());
+            input.keyReleased(e.getCode(), System.nanoTime());
             e.consume();
         });
     }
 
     /**
-     * Startet den Haupt-Gameloop.
-     * Sorgt für konstante 60 FPS und regelmäßige Updates.
+     * Erstellt den Haupt-Gameloop.
+     * Die Simulation tickt mit festen 60 Hz, egal ob der Monitor 60 oder 144 Hz hat.
+     * Die vergangene Zeit wird gesammelt und in ganzen Ticks abgearbeitet,
+     * gezeichnet wird dazwischen interpoliert.
      */
-    private void startGameLoop() {
-        new AnimationTimer() {
+    private void createGameLoop() {
+        gameLoop = new AnimationTimer() {
             @Override
             public void handle(long now) {
-                if (!gameOver && (now - lastUpdate) >= FRAME_TIME) {
+                if (lastFrame == 0) {
+                    lastFrame = now;
+                    return;
+                }
+                long elapsed = now - lastFrame;
+                lastFrame = now;
+                performanceOverlay.beginPulse(now);
+                if (gameOver) {
+                    if (online != null) {
+                        // Keep answering so the opponent can confirm the K.O. as well
+                        online.idle();
+                    }
+                    performanceOverlay.endPulse(now);
+                    return;
+                }
+
+                accumulator += elapsed;
+                int steps = 0;
+                while (accumulator >= TICK_NANOS && steps < MAX_CATCH_UP_TICKS && !gameOver) {
+                    long tickStart = System.nanoTime();
+                    input.advance(now - accumulator + TICK_NANOS, tickStart);
                     update();
-                    lastUpdate = now;
+                    performanceOverlay.recordTick(System.nanoTime() - tickStart);
+                    accumulator -= TICK_NANOS;
+                    steps++;
                 }
+                if (steps == MAX_CATCH_UP_TICKS || gameOver) {
+                    // Too far behind (or match over) - drop the backlog instead of fast-forwarding
+                    accumulator = Math.min(accumulator, TICK_NANOS - 1);
+                }
+                long renderStart = System.nanoTime();
+                render((double) accumulator / TICK_NANOS);
+                performanceOverlay.recordRender(System.nanoTime() - renderStart);
+                performanceOverlay.endPulse(now);
             }
-        }.start();
+        };
     }
 
     /**
-     * Zentrale Methode für alle Angriffe.
-     * Verarbeitet normale und starke Angriffe, prüft Reichweiten und Cooldowns.
+     * Startet bzw. setzt den Gameloop fort.
+     * Die Zeit während einer Pause wird nicht nachgeholt.
      */
-    private void handleAttack(Character attacker, Character target, boolean isStrongAttack) {
-        // Prüfe ob Angriff möglich
-        if (isStrongAttack && !attacker.canUseStrongAttack()) {
+    public void start() {
+        if (running) {
             return;
         }
-        if (!attacker.canAttack()) {
+        running = true;
+        lastFrame = 0;
+        accumulator = 0;
+        performanceOverlay.resetPulse();
+        gameLoop.start();
+        gamePane.requestFocus();
+    }
+
+    /**
+     * Hält den Gameloop an, z.B. wenn die Charakterauswahl angezeigt wird.
+     * Eine pausierte Arena kostet keine CPU mehr.
+     */
+    public void pause() {
+        if (!running) {
             return;
         }
+        running = false;
+        gameLoop.stop();
+        input.clear();
+        if (!gameOver) {
+            stopRecording(0);
+        }
+        // An online match cannot wait for us
+        closeOnline();
+    }
 
-        // Unterscheide zwischen Nah- und Fernkampf
-        boolean isRanged = attacker.getType().equals("Magician") || 
-                          attacker.getType().equals("Bishop") || 
-                          attacker.getType().equals("Priestess") || 
-                          attacker.getType().equals("Wizard");
+    /**
+     * Räumt die Arena endgültig ab.
+     * Danach hält sie keine Kämpfer, Bilder oder Labels mehr fest.
+     */
+    public void dispose() {
+        pause();
+        stopRecording(0);
+        closeReplay();
+        closeOnline();
+        closeCpu();
+        gamePane.setOnKeyPressed(null);
+        gamePane.setOnKeyReleased(null);
+        gamePane.getChildren().clear();
+    }
 
-        if (isRanged) {
-            double heightDiff = Math.abs(attacker.getY() - target.getY());
-            double distance = Math.abs(attacker.getX() - target.getX());
-            
-            if (heightDiff < 50 && distance <= attacker.getAttackRange()) {
-                int damage = attacker.getDamage() * (isStrongAttack ? 2 : 1);
-                target.takeDamage(damage);
-                attacker.setAttackCooldown();
-                if (isStrongAttack) {
-                    attacker.setStrongAttackCooldown();
-                }
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Ein Simulationsschritt.
+     * Nimmt die Eingabe-Snapshots (oder die Eingaben aus dem Replay),
+     * zeichnet sie auf, rechnet einen Tick und prüft auf K.O.
+     */
+    private void update() {
+        if (replay != null) {
+            if (!nextReplayTick()) {
+                return;
+            }
+            simulation.step(replay.getPlayer1Input(), replay.getPlayer2Input());
+        } else if (online != null) {
+            if (!updateOnline()) {
+                return;
             }
         } else {
-            if (attacker.attack(target, isStrongAttack) && isStrongAttack) {
-                attacker.setStrongAttackCooldown();
+            int p1Input = input.getInput(0);
+            int p2Input = cpu != null ? cpu.nextInput(simulation, 1) : input.getInput(1);
+            if (recorder == null && simulation.getTick() == 0) {
+                beginRecording();
             }
+            record(p1Input, p2Input);
+            simulation.step(p1Input, p2Input);
+        }
+        simulation.events().dispatch();
+        if (koPending) {
+            checkGameOver();
         }
     }
 
     /**
-     * Hauptupdate-Methode, wird jeden Frame aufgerufen.
-     * Koordiniert Bewegung, Angriffe und Spielphysik.
+     * Hört auf die Simulation: merkt sich ein K.O., ein Reset oder Rollback nimmt es wieder zurück.
+     * Abgehandelt wird es in {@link #checkGameOver()}, online erst wenn es bestätigt ist.
      */
-    private void update() {
-        handleMovement();
-        handleAttacks();
-        updatePhysics();
+    private void onCombatEvent(CombatEvents.Event event) {
+        switch (event.type()) {
+            case KO -> koPending = true;
+            case RESYNC -> koPending = simulation.isGameOver();
+            default -> { }
+        }
     }
 
     /**
-     * Verarbeitet die Bewegungseingaben beider Spieler.
-     * Prüft auf aktive Tasten und bewegt die Charaktere entsprechend.
+     * Ein Tick im Online-Match.
+     * Der lokale Spieler steuert immer mit WASD + QE, egal auf welcher Seite er steht.
+     * Nach einem (vorhergesagten) K.O. wird nur noch auf die Bestätigung gewartet,
+     * damit beide Seiten exakt beim selben Tick aufhören.
+     * @return false wenn nichts simuliert wurde
      */
-    private void handleMovement() {
-        // Player 1
-        if (activeKeys.contains(KeyCode.A)) {
-            player1.moveLeft();
+    private boolean updateOnline() {
+        if (online.getError() != null) {
+            endOnline("Connection error: " + online.getError());
+            return false;
+        }
+        if (!online.isStarted()) {
+            online.advance(0);
+            if (online.isConnected()) {
+                resetMatch(online.getPlayer1Type(), online.getPlayer2Type());
+                online.start(simulation);
+            }
+            return false;
         }
-        if (activeKeys.contains(KeyCode.D)) {
-            player1.moveRight();
+        boolean advanced;
+        if (simulation.isGameOver()) {
+            online.idle();
+            advanced = online.isConfirmed();
+        } else {
+            advanced = online.advance(input.getInput(0));
+        }
+        onlineStalledTicks = advanced ? 0 : onlineStalledTicks + 1;
+        if (onlineStalledTicks > CONNECTION_TIMEOUT_TICKS) {
+            endOnline("Connection lost");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Bricht das Online-Match mit einer Meldung ab.
+     */
+    private void endOnline(String message) {
+        gameOver = true;
+        closeOnline();
+        gameOverLabel.setText(message);
+        setGameOverVisible(true);
+    }
+
+    private void closeOnline() {
+        if (online == null) {
+            return;
         }
-        if (activeKeys.contains(KeyCode.W)) {
-            player1.jump();
+        online.close();
+        online = null;
+        restartButton.setDisable(false);
+    }
+
+    /**
+     * Lässt Spieler 2 vom Computer steuern (Story Mode).
+     * Muss nach {@link #reset(String, String)} aufgerufen werden, die Arena beendet die KI selbst.
+     */
+    public void setCpuOpponent(CpuController controller) {
+        closeCpu();
+        cpu = controller;
+    }
+
+    private void closeCpu() {
+        if (cpu != null) {
+            cpu.close();
+            cpu = null;
         }
+    }
+
+    /**
+     * Startet ein Online-Match über die gegebene Verbindung.
+     * Bis der Gegner gefunden ist wird gewartet, danach läuft alles über Rollback -
+     * siehe {@link RollbackSession}. Replays werden online nicht aufgezeichnet.
+     */
+    public void playOnline(RollbackSession session) {
+        stopRecording(0);
+        closeReplay();
+        closeOnline();
+        closeCpu();
+        online = session;
+        onlineStalledTicks = 0;
+        resetMatch(session.getPlayer1Type() != null ? session.getPlayer1Type() : session.getPlayer2Type(),
+                   session.getPlayer2Type() != null ? session.getPlayer2Type() : session.getPlayer1Type());
+        // The match only starts once the opponent has answered
+        gameOverLabel.setText("Waiting for opponent...");
+        gameOverLabel.setVisible(true);
+        restartButton.setDisable(true);
+    }
+
+    /**
+     * Startet eine neue Aufzeichnung für das gerade beginnende Match.
+     */
+    private void beginRecording() {
+        recorder = ReplayRecorder.start(
+            simulation.getPlayer1().getType(), simulation.getPlayer2().getType(),
+            gameManager.getPlayer1Name(), gameManager.getPlayer2Name());
+    }
 
-        // Player 2 
-        if (activeKeys.contains(KeyCode.LEFT)) {
-            player2.moveLeft();
+    private void record(int p1Input, int p2Input) {
+        if (recorder == null) {
+            return;
         }
-        if (activeKeys.contains(KeyCode.RIGHT)) {
-            player2.moveRight();
+        try {
+            recorder.record(p1Input, p2Input);
+        } catch (java.io.IOException e) {
+            System.err.println("Error writing replay, recording stopped: " + e.getMessage());
+            stopRecording(0);
+        }
+    }
+
+    /**
+     * Schließt die Aufzeichnung ab.
+     * @param winner 1 oder 2, 0 wenn das Match abgebrochen wurde
+     */
+    private void stopRecording(int winner) {
+        if (recorder == null) {
+            return;
         }
-        if (activeKeys.contains(KeyCode.UP)) {
-            player2.jump();
+        try {
+            recorder.finish(winner);
+        } catch (java.io.IOException e) {
+            System.err.println("Error finishing replay: " + e.getMessage());
         }
+        recorder = null;
     }
 
     /**
-     * Kümmert sich um die Angriffsaktionen beider Spieler.
-     * Prüft Tasteneingaben und löst entsprechende Angriffe aus.
+     * Liest den nächsten Replay-Tick.
+     * Bricht die Aufzeichnung vor dem K.O. ab, ist das Replay hier zu Ende.
      */
-    private void handleAttacks() {
-        // Player 1 attacks
-        if (activeKeys.contains(KeyCode.Q) || activeKeys.contains(KeyCode.E)) {
-            handleAttack(player1, player2, activeKeys.contains(KeyCode.E));
+    private boolean nextReplayTick() {
+        try {
+            if (replay.next()) {
+                return true;
+            }
+        } catch (java.io.IOException e) {
+            System.err.println("Error reading replay: " + e.getMessage());
         }
+        gameOver = true;
+        gameOverLabel.setText("Replay ended");
+        setGameOverVisible(true);
+        return false;
+    }
 
-        // Player 2 attacks
-        if (activeKeys.contains(KeyCode.K) || activeKeys.contains(KeyCode.L)) {
-            handleAttack(player2, player1, activeKeys.contains(KeyCode.L));
+    private void closeReplay() {
+        if (replay == null) {
+            return;
+        }
+        try {
+            replay.close();
+        } catch (java.io.IOException e) {
+            System.err.println("Error closing replay: " + e.getMessage());
         }
+        replay = null;
     }
 
     /**
-     * Aktualisiert die Spielphysik.
-     * Berechnet Sprünge, Schwerkraft und Kollisionen.
+     * Spielt ein aufgezeichnetes Match in Echtzeit ab.
+     * Tastatureingaben werden ignoriert, Siege werden nicht gezählt.
      */
-    private void updatePhysics() {
-        player1.update();
-        player2.update();
-        updateHealthBars();
-        checkGameOver();
+    public void playReplay(ReplayReader reader) {
+        stopRecording(0);
+        closeReplay();
+        closeOnline();
+        closeCpu();
+        replay = reader;
+        resetMatch(reader.getPlayer1Type(), reader.getPlayer2Type());
     }
 
     /**
-     * Aktualisiert die HP-Anzeigen.
-     * Passt Balken und Zahlenwerte an den aktuellen Gesundheitszustand an.
+     * Überträgt den Simulationszustand auf die Spielelemente - je nach Renderer als Nodes oder aufs Canvas.
+     * @param alpha Anteil des angebrochenen Ticks für die Interpolation
      */
-    private void updateHealthBars() {
-        healthBar1.setWidth(Math.max(0, player1.getHealth() * 2));
-        healthBar2.setWidth(Math.max(0, player2.getHealth() * 2));
-        healthLabel1.setText(player1.getHealth() + "/100");
-        healthLabel2.setText(player2.getHealth() + "/100");
+    private void render(double alpha) {
+        renderer.render(alpha);
+        feedback.update(simulation.getTick());
+        if (collisionOverlay.isVisible()) {
+            collisionOverlay.render(simulation);
+        }
     }
 
     /**
-     * Prüft ob ein Spieler gewonnen hat.
+     * Handelt ein gemeldetes K.O. ab.
      * Zeigt Game Over Screen und aktualisiert die Siegesstatistiken.
      */
     private void checkGameOver() {
-        if (!gameOver && (player1.getHealth() <= 0 || player2.getHealth() <= 0)) {
+        if (!gameOver && simulation.isGameOver()) {
+            if (online != null && !online.isConfirmed()) {
+                // Only a prediction so far - a late input may still undo the K.O.
+                return;
+            }
+            koPending = false;
             gameOver = true;
-            boolean isPlayer1Winner = player2.getHealth() <= 0;
+            boolean isPlayer1Winner = simulation.getWinner() == 1;
             String winnerName = isPlayer1Winner ? 
-                gameManager.getPlayer1Name() : 
-                gameManager.getPlayer2Name();
+                getPlayer1Name() : 
+                getPlayer2Name();
             
+            String winner = isPlayer1Winner ? "Player 1" : "Player 2";
+            if (replay != null) {
+                gameOverLabel.setText(winner + " wins! (Replay)");
+                setGameOverVisible(true);
+                return;
+            }
+
+            stopRecording(simulation.getWinner());
+            recordMatch();
+            if (cpu != null) {
+                // Story Mode: only the human collects wins
+                if (isPlayer1Winner) {
+                    PlayerData.addWin(winnerName);
+                }
+                gameOverLabel.setText(isPlayer1Winner ? "You win!" : "The CPU wins!");
+                setGameOverVisible(true);
+                setNextFightVisible(isPlayer1Winner);
+                return;
+            }
+
             // Update wins in PlayerData
             PlayerData.addWin(winnerName);
             
-            String winner = player1.getHealth() <= 0 ? "Player 2" : "Player 1";
-            Label gameOverLabel = new Label(winner + " wins!");
-            gameOverLabel.setStyle("-fx-font-size: 24;");
-            gameOverLabel.setLayoutX(350);
-            gameOverLabel.setLayoutY(250);
-            
-            HBox buttons = new HBox(20);
-            buttons.setLayoutX(300);
-            buttons.setLayoutY(300);
-            
-            Button restartButton = new Button("Play Again");
-            restartButton.setOnAction(e -> restartGame());
-            
-            Button characterSelectButton = new Button("Character Select");
-            characterSelectButton.setOnAction(e -> gameManager.showCharacterSelect());  // Changed from switchToCharacterSelect to showCharacterSelect
-            
-            buttons.getChildren().addAll(restartButton, characterSelectButton);
-            
-            gamePane.getChildren().addAll(gameOverLabel, buttons);
+            gameOverLabel.setText(winner + " wins!");
+            setGameOverVisible(true);
         }
     }
 
+    /**
+     * Trägt das gerade beendete Match in die Historie ein.
+     * Matches gegen den Computer zählen nicht für die Wertung.
+     */
+    private void recordMatch() {
+        Fighter fighter1 = simulation.getPlayer1();
+        Fighter fighter2 = simulation.getPlayer2();
+        PlayerData.recordMatch(new MatchHistory.Match(System.currentTimeMillis(),
+            getPlayer1Name(), getPlayer2Name(), fighter1.getType(), fighter2.getType(),
+            simulation.getWinner(), (int) simulation.getTick(),
+            Math.max(0, fighter1.getHealth()), Math.max(0, fighter2.getHealth()),
+            fighter2.getMaxHealth() - Math.max(0, fighter2.getHealth()),
+            fighter1.getMaxHealth() - Math.max(0, fighter1.getHealth()),
+            cpu == null));
+    }
+
     /**
      * Setzt die Arena für eine neue Runde zurück.
      * Heilt die Spieler und entfernt Game Over Anzeigen.
+     * Ein Replay startet dabei von vorne.
      */
     private void restartGame() {
-        player1.reset();
-        player2.reset();
+        if (replay != null) {
+            try {
+                replay.rewind();
+            } catch (java.io.IOException e) {
+                System.err.println("Error rewinding replay: " + e.getMessage());
+            }
+        }
+        simulation.reset();
+        if (cpu != null) {
+            cpu.reset();
+        }
         gameOver = false;
-        
-        // Remove all game over elements
-        gamePane.getChildren().removeIf(node -> 
-            (node instanceof Label && ((Label) node).getText().contains("wins")) ||
-            (node instanceof HBox)  // This will remove the HBox containing both buttons
-        );
+        setGameOverVisible(false);
+        stopRecording(0);
         
         // Update player stats labels with new win counts
-        player1StatsLabel.setText(String.format("%s - Wins: %d", 
-            gameManager.getPlayer1Name(), 
-            PlayerData.getWins(gameManager.getPlayer1Name())));
-        player2StatsLabel.setText(String.format("%s - Wins: %d", 
-            gameManager.getPlayer2Name(), 
-            PlayerData.getWins(gameManager.getPlayer2Name())));
+        updateStatsLabels();
         
-        updateHealthBars();
+        render(1);
         gamePane.requestFocus();
     }
 
@@ -327,21 +653,26 @@ public class GameArena {
 
     /**
      * Setzt die Arena mit neuen Charakteren zurück.
-     * Wird nach der Charakterauswahl aufgerufen.
+     * Wird nach der Charakterauswahl aufgerufen - die Spielelemente
+     * bleiben dieselben, nur Simulation und Bilder werden neu belegt.
      */
     public void reset(String p1Character, String p2Character) {
-        // Remove old players
-        gamePane.getChildren().removeAll(player1, player2);
-        
-        // Create new players
-        player1 = new Character(p1Character, 100, 450);
-        player2 = new Character(p2Character, 600, 450);
-        
-        // Add new players
-        gamePane.getChildren().addAll(player1, player2);
+        stopRecording(0);
+        closeReplay();
+        closeOnline();
+        closeCpu();
+        resetMatch(p1Character, p2Character);
+    }
+
+    private void resetMatch(String p1Character, String p2Character) {
+        simulation.reset(p1Character, p2Character);
+        renderer.setMatch(simulation);
         
         gameOver = false;
-        updateHealthBars();
+        setGameOverVisible(false);
+        input.clear();
+        updateStatsLabels();
+        render(1);
         gamePane.requestFocus();
     }
 }
\ No newline at end of file
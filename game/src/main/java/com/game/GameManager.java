@@ -1,5 +1,6 @@
 package com.game;
 
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.layout.VBox;
@@ -10,8 +11,15 @@ import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.control.TextInputDialog;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.ProgressBar;
 import javafx.stage.Modality;
 import javafx.scene.control.Alert;
+import javafx.stage.FileChooser;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
 
 import java.util.List;
 import java.util.Map;
@@ -27,6 +35,8 @@ public class GameManager {
     private Scene mainScene;
     private Scene characterSelectScene;
     private GameArena gameArena;
+    /** Das laufende Free-for-all, sonst null */
+    private BrawlArena brawlArena;
 
     /** Spieler und Charakterwahl */
     private String selectedP1Character = null;
@@ -34,6 +44,15 @@ public class GameManager {
     private String player1Name;
     private String player2Name;
 
+    /**
+     * Story Mode: alle Charaktere nacheinander gegen den Computer,
+     * ungefähr vom leichtesten zum schwersten (siehe BalanceSimulator).
+     * Die Reihenfolge kommt aus characters.json und gilt für einen ganzen Durchlauf.
+     */
+    private List<String> storyLadder;
+    private String storyCharacter;
+    private int storyStage;
+
     /**
      * Erstellt einen neuen GameManager.
      * @param stage Das Hauptfenster der Anwendung
@@ -52,46 +71,228 @@ public class GameManager {
 
         Button storyMode = new Button("Story Mode");
         Button pvpMode = new Button("1v1 Mode");
+        Button brawlMode = new Button("Free for All");
+        Button onlineButton = new Button("Online Match");
+        Button replayButton = new Button("Watch Replay");
         Button closeButton = new Button("Exit Game");  // Add close button
 
         storyMode.setOnAction(e -> showStoryMode());
         pvpMode.setOnAction(e -> showCharacterSelect());
+        brawlMode.setOnAction(e -> showBrawlSetup());
+        onlineButton.setOnAction(e -> showOnlineSetup());
+        replayButton.setOnAction(e -> chooseReplay());
         closeButton.setOnAction(e -> {
-            // Save any pending data before closing
-            PlayerData.saveData();
-            // Close the application
+            // Close the application - Main.stop() saves and cleans up
             primaryStage.close();
         });
 
         // Style the buttons consistently
         storyMode.setPrefWidth(150);
         pvpMode.setPrefWidth(150);
+        brawlMode.setPrefWidth(150);
+        onlineButton.setPrefWidth(150);
+        replayButton.setPrefWidth(150);
         closeButton.setPrefWidth(150);
         
-        mainMenu.getChildren().addAll(storyMode, pvpMode, closeButton);
+        mainMenu.getChildren().addAll(storyMode, pvpMode, brawlMode, onlineButton, replayButton, closeButton);
+
+        // Images are decoded in the background while the menu is up
+        if (!AssetManager.ready().isDone()) {
+            ProgressBar loading = new ProgressBar();
+            loading.setPrefWidth(150);
+            loading.progressProperty().bind(AssetManager.progressProperty());
+            mainMenu.getChildren().add(loading);
+            AssetManager.ready().thenRun(() -> Platform.runLater(() -> mainMenu.getChildren().remove(loading)));
+        }
         return mainMenu;
     }
 
     /**
-     * Zeigt Story-Modus (noch nicht implementiert)
+     * Meldet Bilder, die beim Start nicht geladen werden konnten.
+     * Wird einmal aufgerufen, sobald der AssetManager fertig ist.
+     */
+    public void reportAssetFailures() {
+        Map<String, String> failures = AssetManager.getFailures();
+        if (failures.isEmpty()) {
+            return;
+        }
+        StringBuilder message = new StringBuilder("These characters will show a placeholder:\n");
+        failures.forEach((type, reason) -> message.append("\n").append(type).append(": ").append(reason));
+        showError("Missing Images", message.toString());
+    }
+
+    /**
+     * Zeigt den Story Mode.
+     * Man wählt Namen und Charakter und kämpft sich dann durch alle Gegner.
      */
     private void showStoryMode() {
+        if (gameArena != null) {
+            gameArena.pause();
+        }
+        PlayerData.ensureLoaded();
+
         VBox storyBox = new VBox(20);
         storyBox.setAlignment(Pos.CENTER);
-        Label comingSoon = new Label("Coming Soon!");
+        Label title = new Label("Story Mode");
+        Label info = new Label("Beat all " + Archetypes.get().size() + " fighters controlled by the CPU!");
+
+        ComboBox<String> nameSelect = new ComboBox<>();
+        nameSelect.setEditable(true);
+        nameSelect.setPromptText("Your name");
+        nameSelect.getItems().addAll(PlayerData.getAllPlayerNames());
+        nameSelect.setPrefWidth(200);
+
+        ComboBox<String> characterSelect = new ComboBox<>();
+        characterSelect.getItems().addAll(Archetypes.get().names());
+        characterSelect.setValue("Warrior");
+        characterSelect.setPrefWidth(200);
+
+        Button start = new Button("Start");
+        start.setOnAction(e -> {
+            String name = nameSelect.getValue();
+            if (name == null || name.trim().isEmpty()) {
+                showError("Invalid Name", "Please enter your name!");
+                return;
+            }
+            player1Name = name.trim();
+            PlayerData.addPlayer(player1Name);
+            storyCharacter = characterSelect.getValue();
+            storyLadder = Archetypes.get().storyLadder();
+            storyStage = 0;
+            startStoryFight();
+        });
+
         Button back = new Button("Back to Main Menu");
         back.setOnAction(e -> primaryStage.getScene().setRoot(getMainMenu()));
-        storyBox.getChildren().addAll(comingSoon, back);
+
+        HBox buttons = new HBox(20);
+        buttons.setAlignment(Pos.CENTER);
+        buttons.getChildren().addAll(back, start);
+
+        storyBox.getChildren().addAll(title, info, nameSelect, characterSelect, buttons);
         primaryStage.getScene().setRoot(storyBox);
     }
 
+    /**
+     * Zurück ins Hauptmenü.
+     */
+    public void showMainMenu() {
+        primaryStage.getScene().setRoot(getMainMenu());
+    }
+
+    /**
+     * Einstellungen fürs Free-for-all: wie viele Kämpfer und wer an der Tastatur spielt.
+     * Spieler 2 ist optional, alle anderen Plätze bekommen Skript-Gegner.
+     */
+    private void showBrawlSetup() {
+        if (gameArena != null) {
+            gameArena.pause();
+        }
+
+        VBox brawlBox = new VBox(20);
+        brawlBox.setAlignment(Pos.CENTER);
+        Label title = new Label("Free for All");
+        Label info = new Label("Everyone against everyone - the last one standing wins!");
+
+        ComboBox<Integer> fighterSelect = new ComboBox<>();
+        fighterSelect.getItems().addAll(2, 4, 8, 16, 32, BrawlSimulation.MAX_FIGHTERS);
+        fighterSelect.setValue(8);
+        fighterSelect.setPrefWidth(200);
+
+        ComboBox<String> p1Select = new ComboBox<>();
+        p1Select.getItems().addAll(Archetypes.get().names());
+        p1Select.setValue("Warrior");
+        p1Select.setPrefWidth(200);
+
+        ComboBox<String> p2Select = new ComboBox<>();
+        p2Select.getItems().add("No Player 2");
+        p2Select.getItems().addAll(Archetypes.get().names());
+        p2Select.setValue("No Player 2");
+        p2Select.setPrefWidth(200);
+
+        Button start = new Button("Start");
+        start.setOnAction(e -> startBrawl(p1Select.getValue(),
+            p2Select.getSelectionModel().getSelectedIndex() > 0 ? p2Select.getValue() : null,
+            fighterSelect.getValue()));
+
+        Button back = new Button("Back to Main Menu");
+        back.setOnAction(e -> showMainMenu());
+
+        HBox buttons = new HBox(20);
+        buttons.setAlignment(Pos.CENTER);
+        buttons.getChildren().addAll(back, start);
+
+        brawlBox.getChildren().addAll(title, info, new Label("Fighters"), fighterSelect,
+                                      new Label("Player 1 (WASD + QE)"), p1Select,
+                                      new Label("Player 2 (Arrows + KL)"), p2Select, buttons);
+        primaryStage.getScene().setRoot(brawlBox);
+    }
+
+    /**
+     * Startet ein Free-for-all. Die Skript-Gegner bekommen reihum alle Charaktere.
+     * @param p2Character null wenn nur ein Spieler mitmacht
+     */
+    private void startBrawl(String p1Character, String p2Character, int fighters) {
+        List<String> characters = Archetypes.get().names();
+        int humans = p2Character == null ? 1 : 2;
+        String[] types = new String[fighters];
+        types[0] = p1Character;
+        if (humans == 2) {
+            types[1] = p2Character;
+        }
+        for (int i = humans; i < fighters; i++) {
+            types[i] = characters.get(i % characters.size());
+        }
+
+        if (brawlArena != null) {
+            brawlArena.pause();
+        }
+        brawlArena = new BrawlArena(types, humans, this);
+        primaryStage.getScene().setRoot(brawlArena.getGamePane());
+        brawlArena.start();
+    }
+
+    /**
+     * Startet den Kampf gegen den aktuellen Gegner der Story.
+     */
+    private void startStoryFight() {
+        String opponent = storyLadder.get(storyStage);
+        player2Name = "CPU (" + opponent + ")";
+        startGame(storyCharacter, opponent);
+        gameArena.setCpuOpponent(CpuController.createDefault());
+    }
+
+    /**
+     * Weiter zum nächsten Gegner - oder der Abspann, wenn alle besiegt sind.
+     */
+    public void nextStoryFight() {
+        storyStage++;
+        if (storyStage < storyLadder.size()) {
+            startStoryFight();
+            return;
+        }
+        gameArena.pause();
+        VBox endBox = new VBox(20);
+        endBox.setAlignment(Pos.CENTER);
+        Label done = new Label(player1Name + " has beaten everyone. Congratulations!");
+        Button back = new Button("Back to Main Menu");
+        back.setOnAction(e -> primaryStage.getScene().setRoot(getMainMenu()));
+        endBox.getChildren().addAll(done, back);
+        primaryStage.getScene().setRoot(endBox);
+    }
+
     /**
      * Zeigt die Charakterauswahl.
      * Mit Top 3 Spielern und allen Stats - schön übersichtlich.
      */
     public void showCharacterSelect() {
-        // Load player data first
-        PlayerData.loadData();
+        // The arena stays around for the next match, but must not keep ticking
+        if (gameArena != null) {
+            gameArena.pause();
+        }
+
+        // Load player data first (only the first visit actually reads)
+        PlayerData.ensureLoaded();
 
         VBox characterSelect = new VBox(20);
         characterSelect.setAlignment(Pos.CENTER);
@@ -103,11 +304,15 @@ public class GameManager {
         Label topPlayersTitle = new Label("Top 3 Players");
         topPlayersBox.getChildren().add(topPlayersTitle);
 
-        List<Map.Entry<String, Integer>> topPlayers = PlayerData.getTopPlayers(3);
+        // Ranked by Elo rating, not by how often someone played - by wins while the ratings are still computed
+        boolean rated = PlayerData.isRatingsReady();
+        List<Map.Entry<String, Integer>> topPlayers = rated ? PlayerData.getTopRated(3) : PlayerData.getTopPlayers(3);
         for (int i = 0; i < topPlayers.size(); i++) {
             Map.Entry<String, Integer> player = topPlayers.get(i);
-            Label playerLabel = new Label(String.format("%d. %s - %d wins", 
-                i + 1, player.getKey(), player.getValue()));
+            Label playerLabel = new Label(rated
+                ? String.format("%d. %s - %d (%d wins)",
+                    i + 1, player.getKey(), player.getValue(), PlayerData.getWins(player.getKey()))
+                : String.format("%d. %s - %d wins", i + 1, player.getKey(), player.getValue()));
             topPlayersBox.getChildren().add(playerLabel);
         }
 
@@ -133,20 +338,9 @@ public class GameManager {
         Label statsLabelP2 = new Label("Player 2: No character selected");
         statsLabelP2.setStyle("-fx-font-size: 14; -fx-font-family: monospace;");
 
-        String[] characters = {
-            "Bishop", 
-            "Holyknight", 
-            "Knight", 
-            "Magician", 
-            "Ninja", 
-            "Priestess", 
-            "Rogue", 
-            "Swordsman", 
-            "Warrior", 
-            "Wizard"
-        };  // Nur die Charaktere mit vorhandenen Bildern
-
-        for (String character : characters) {
+        // Roster and stats come from characters.json - a reload shows up the next time this screen opens
+        Archetypes table = Archetypes.get();
+        for (String character : table.names()) {
             Button p1Button = new Button(character);
             Button p2Button = new Button(character);
             
@@ -156,49 +350,13 @@ public class GameManager {
             p1Button.setOnAction(e -> {
                 selectedP1Character = character;
                 p1Label.setText("Player 1: " + character);
-                Character.CharacterStats stats = Character.CHARACTER_STATS.get(character);
-                String statsText = String.format("""
-                    Player 1: %s
-                    Damage: %d
-                    Defense: %d
-                    Speed: %.1f
-                    Attack Speed: %d
-                    Attack Range: %.0f
-                    
-                    %s""", 
-                    character,
-                    stats.damage(),
-                    stats.defense(),
-                    stats.speed(),
-                    stats.attackSpeed(), // Changed order
-                    stats.range(),      // Changed from %d to %.0f
-                    stats.description()
-                );
-                statsLabelP1.setText(statsText);
+                statsLabelP1.setText(statsText("Player 1", table, character));
             });
             
             p2Button.setOnAction(e -> {
                 selectedP2Character = character;
                 p2Label.setText("Player 2: " + character);
-                Character.CharacterStats stats = Character.CHARACTER_STATS.get(character);
-                String statsText = String.format("""
-                    Player 2: %s
-                    Damage: %d
-                    Defense: %d
-                    Speed: %.1f
-                    Attack Speed: %d
-                    Attack Range: %.0f
-                    
-                    %s""", 
-                    character,
-                    stats.damage(),
-                    stats.defense(),
-                    stats.speed(),
-                    stats.attackSpeed(), // Changed order
-                    stats.range(),      // Changed from %d to %.0f
-                    stats.description()
-                );
-                statsLabelP2.setText(statsText);
+                statsLabelP2.setText(statsText("Player 2", table, character));
             });
 
             p1ButtonBox.getChildren().add(p1Button);
@@ -247,6 +405,32 @@ public class GameManager {
         primaryStage.getScene().setRoot(characterSelect);
     }
 
+    /**
+     * Die Werte eines Charakters für die Auswahl.
+     */
+    private static String statsText(String player, Archetypes table, String character) {
+        int id = table.id(character);
+        return String.format("""
+            %s: %s
+            Damage: %d
+            Defense: %d
+            Speed: %.1f
+            Attack Speed: %d
+            Attack Range: %.0f (%s)
+            
+            %s""",
+            player,
+            character,
+            table.damage(id),
+            table.defense(id),
+            table.speed(id),
+            table.attackSpeed(id),
+            table.range(id),
+            table.isRanged(id) ? "ranged" : "melee",
+            table.description(id)
+        );
+    }
+
     /**
      * Dialog für die Spielerauswahl/Erstellung.
      * Speichert auch direkt neue Spieler in der Datenbank.
@@ -273,7 +457,26 @@ public class GameManager {
         p2Select.setEditable(true);
         p2Select.getItems().addAll(PlayerData.getAllPlayerNames());
         p2Select.setPrefWidth(200);
-        p2Box.getChildren().addAll(p2Label, p2Select);
+        
+        // Matchmaking: opponents with a similar rating to Player 1
+        HBox suggestions = new HBox(5);
+        suggestions.setAlignment(Pos.CENTER_LEFT);
+        p1Select.valueProperty().addListener((obs, old, name) -> {
+            suggestions.getChildren().clear();
+            if (name == null || name.trim().isEmpty()) {
+                return;
+            }
+            List<Map.Entry<String, Integer>> opponents = PlayerData.suggestOpponents(name.trim(), 3);
+            if (!opponents.isEmpty()) {
+                suggestions.getChildren().add(new Label("Even match:"));
+            }
+            for (Map.Entry<String, Integer> opponent : opponents) {
+                Button pick = new Button(String.format("%s (%d)", opponent.getKey(), opponent.getValue()));
+                pick.setOnAction(e -> p2Select.setValue(opponent.getKey()));
+                suggestions.getChildren().add(pick);
+            }
+        });
+        p2Box.getChildren().addAll(p2Label, p2Select, suggestions);
         
         // Buttons
         HBox buttons = new HBox(10);
@@ -327,12 +530,178 @@ public class GameManager {
 
     /**
      * Startet das eigentliche Spiel.
-     * Erstellt die Arena und übergibt die gewählten Charaktere.
+     * Die Arena wird nur beim ersten Match gebaut und danach nur noch zurückgesetzt.
+     * Auch die Szene bleibt dieselbe, es wird nur der Inhalt getauscht.
      */
     private void startGame(String p1Character, String p2Character) {
-        gameArena = new GameArena(p1Character, p2Character, this);
-        primaryStage.setScene(new Scene(gameArena.getGamePane(), 800, 600));
-        gameArena.getGamePane().requestFocus();
+        if (gameArena == null) {
+            gameArena = new GameArena(p1Character, p2Character, this);
+        } else {
+            gameArena.reset(p1Character, p2Character);
+        }
+        primaryStage.getScene().setRoot(gameArena.getGamePane());
+        gameArena.start();
+    }
+
+    /**
+     * Dialog für ein Online-Match gegen einen anderen Rechner.
+     * Beide Seiten tragen die Adresse des anderen ein und wählen verschiedene Seiten.
+     * Mit Verzögerung und Paketverlust lässt sich eine schlechte Leitung ausprobieren.
+     */
+    private void showOnlineSetup() {
+        VBox dialog = new VBox(10);
+        dialog.setAlignment(Pos.CENTER);
+        dialog.setPadding(new javafx.geometry.Insets(20));
+
+        ComboBox<String> nameSelect = new ComboBox<>();
+        nameSelect.setEditable(true);
+        nameSelect.getItems().addAll(PlayerData.getAllPlayerNames());
+        nameSelect.setPrefWidth(200);
+
+        ComboBox<String> characterSelect = new ComboBox<>();
+        characterSelect.getItems().addAll(Archetypes.get().names());
+        characterSelect.setValue("Warrior");
+        characterSelect.setPrefWidth(200);
+
+        ComboBox<String> sideSelect = new ComboBox<>();
+        sideSelect.getItems().addAll("Player 1 (left)", "Player 2 (right)");
+        sideSelect.setValue("Player 1 (left)");
+        sideSelect.setPrefWidth(200);
+
+        TextField localPortField = new TextField("7777");
+        TextField remoteField = new TextField("127.0.0.1:7778");
+        TextField delayField = new TextField("0");
+        TextField lossField = new TextField("0");
+
+        HBox buttons = new HBox(10);
+        buttons.setAlignment(Pos.CENTER);
+        Button connectButton = new Button("Connect");
+        Button cancelButton = new Button("Cancel");
+        buttons.getChildren().addAll(connectButton, cancelButton);
+
+        dialog.getChildren().addAll(
+            new Label("Your name:"), nameSelect,
+            new Label("Character:"), characterSelect,
+            new Label("Side:"), sideSelect,
+            new Label("Local port:"), localPortField,
+            new Label("Opponent (host:port):"), remoteField,
+            new Label("Simulated delay (ms):"), delayField,
+            new Label("Simulated packet loss (%):"), lossField,
+            buttons);
+
+        Stage dialogStage = new Stage();
+        dialogStage.initModality(Modality.APPLICATION_MODAL);
+        dialogStage.setTitle("Online Match");
+        dialogStage.setScene(new Scene(dialog));
+
+        connectButton.setOnAction(e -> {
+            String name = nameSelect.getValue();
+            if (name == null || name.trim().isEmpty()) {
+                showError("Invalid Name", "Please enter your name!");
+                return;
+            }
+            name = name.trim();
+            int slot = sideSelect.getSelectionModel().getSelectedIndex();
+
+            RollbackSession session;
+            try {
+                int localPort = Integer.parseInt(localPortField.getText().trim());
+                String remote = remoteField.getText().trim();
+                int colon = remote.lastIndexOf(':');
+                InetSocketAddress remoteAddress = new InetSocketAddress(
+                    remote.substring(0, colon), Integer.parseInt(remote.substring(colon + 1)));
+                int delay = Integer.parseInt(delayField.getText().trim());
+                double loss = Double.parseDouble(lossField.getText().trim());
+
+                NetTransport transport = new UdpTransport(localPort, remoteAddress);
+                if (delay > 0 || loss > 0) {
+                    transport = new LaggyTransport(transport, delay, delay / 4, loss,
+                                                   System.nanoTime(), System::nanoTime);
+                }
+                session = new RollbackSession(transport, slot, characterSelect.getValue(), name);
+            } catch (NumberFormatException | StringIndexOutOfBoundsException ex) {
+                showError("Invalid Settings", "Please check port, address, delay and loss!");
+                return;
+            } catch (IOException ex) {
+                showError("Connection Failed", "Could not open connection: " + ex.getMessage());
+                return;
+            }
+
+            PlayerData.addPlayer(name);
+            player1Name = name;
+            player2Name = name;
+            dialogStage.close();
+            startOnlineGame(session, characterSelect.getValue());
+        });
+        cancelButton.setOnAction(e -> dialogStage.close());
+
+        dialogStage.showAndWait();
+    }
+
+    private void startOnlineGame(RollbackSession session, String localCharacter) {
+        if (gameArena == null) {
+            gameArena = new GameArena(localCharacter, localCharacter, this);
+        }
+        gameArena.playOnline(session);
+        primaryStage.getScene().setRoot(gameArena.getGamePane());
+        gameArena.start();
+    }
+
+    private void showError(String title, String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle(title);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+
+    /**
+     * Lässt ein Replay aus dem Replay-Ordner auswählen und spielt es ab.
+     */
+    private void chooseReplay() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Select Replay");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Replays", "*.replay"));
+        if (Files.isDirectory(ReplayRecorder.REPLAY_DIR)) {
+            chooser.setInitialDirectory(ReplayRecorder.REPLAY_DIR.toFile());
+        }
+        File file = chooser.showOpenDialog(primaryStage);
+        if (file == null) {
+            return;
+        }
+
+        ReplayReader reader;
+        try {
+            reader = new ReplayReader(file.toPath());
+        } catch (IOException ex) {
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("Invalid Replay");
+            alert.setContentText("Could not open replay: " + ex.getMessage());
+            alert.showAndWait();
+            return;
+        }
+
+        if (gameArena == null) {
+            gameArena = new GameArena(reader.getPlayer1Type(), reader.getPlayer2Type(), this);
+        }
+        gameArena.playReplay(reader);
+        primaryStage.getScene().setRoot(gameArena.getGamePane());
+        gameArena.start();
+    }
+
+    /**
+     * Räumt beim Beenden auf.
+     * Stoppt die Arena und speichert die Spielerdaten.
+     */
+    public void shutdown() {
+        if (gameArena != null) {
+            gameArena.dispose();
+            gameArena = null;
+        }
+        if (brawlArena != null) {
+            brawlArena.pause();
+            brawlArena = null;
+        }
+        PlayerData.saveData();
     }
 
     /** Getter für die Spielernamen */
@@ -0,0 +1,145 @@
+package com.game;
+
+import javafx.scene.input.KeyCode;
+
+/**
+ * Sammelt die Tastatureingaben beider Spieler.
+ * Die Key-Handler schreiben nur Zeitstempel und Taste in einen Ringpuffer,
+ * jeder Tick macht daraus pro Spieler eine Bitmaske (siehe MatchSimulation.INPUT_*).
+ * Kurz angetippte Tasten zählen mindestens einen Tick lang als gedrückt,
+ * auch wenn sie vor dem Tick schon wieder losgelassen wurden.
+ */
+public final class InputBuffer {
+    /** Größe des Ringpuffers - muss eine Zweierpotenz sein */
+    private static final int CAPACITY = 256;
+    private static final int MASK = CAPACITY - 1;
+
+    /** Taste -> (Spieler << 8 | Eingabe-Bit), 0 = nicht belegt */
+    private static final int[] BINDINGS = new int[KeyCode.values().length];
+
+    static {
+        bind(KeyCode.A, 0, MatchSimulation.INPUT_LEFT);
+        bind(KeyCode.D, 0, MatchSimulation.INPUT_RIGHT);
+        bind(KeyCode.W, 0, MatchSimulation.INPUT_JUMP);
+        bind(KeyCode.Q, 0, MatchSimulation.INPUT_ATTACK);
+        bind(KeyCode.E, 0, MatchSimulation.INPUT_SPECIAL);
+
+        bind(KeyCode.LEFT, 1, MatchSimulation.INPUT_LEFT);
+        bind(KeyCode.RIGHT, 1, MatchSimulation.INPUT_RIGHT);
+        bind(KeyCode.UP, 1, MatchSimulation.INPUT_JUMP);
+        bind(KeyCode.K, 1, MatchSimulation.INPUT_ATTACK);
+        bind(KeyCode.L, 1, MatchSimulation.INPUT_SPECIAL);
+    }
+
+    private static void bind(KeyCode code, int player, int bit) {
+        BINDINGS[code.ordinal()] = player << 8 | bit;
+    }
+
+    /** Der Ringpuffer mit den rohen Tastenereignissen */
+    private final int[] eventBindings = new int[CAPACITY];
+    private final boolean[] eventPressed = new boolean[CAPACITY];
+    private final long[] eventTimes = new long[CAPACITY];
+    private int head = 0;
+    private int tail = 0;
+
+    /** Gehaltene und seit dem letzten Tick angetippte Tasten pro Spieler */
+    private final int[] held = new int[2];
+    private final int[] tapped = new int[2];
+    private final int[] snapshot = new int[2];
+
+    /** Zeit von Tastendruck bis zum Tick, der ihn verarbeitet */
+    private final FrameStats latency;
+
+    /**
+     * @param latency hier wird die Eingabelatenz jedes Tastendrucks eingetragen
+     */
+    public InputBuffer(FrameStats latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Aus dem Key-Handler aufrufen.
+     * @return ob die Taste zu einem Spieler gehört
+     */
+    public boolean keyPressed(KeyCode code, long nanos) {
+        return push(code, true, nanos);
+    }
+
+    /**
+     * Aus dem Key-Handler aufrufen.
+     * @return ob die Taste zu einem Spieler gehört
+     */
+    public boolean keyReleased(KeyCode code, long nanos) {
+        return push(code, false, nanos);
+    }
+
+    private boolean push(KeyCode code, boolean pressed, long nanos) {
+        int binding = BINDINGS[code.ordinal()];
+        if (binding == 0) {
+            return false;
+        }
+        if (tail - head == CAPACITY) {
+            // Buffer full - fold the oldest event into the state instead of losing it
+            apply(head & MASK, Long.MIN_VALUE);
+            head++;
+        }
+        int slot = tail & MASK;
+        eventBindings[slot] = binding;
+        eventPressed[slot] = pressed;
+        eventTimes[slot] = nanos;
+        tail++;
+        return true;
+    }
+
+    /**
+     * Verarbeitet alle Ereignisse bis zum Ende des nächsten Ticks
+     * und baut daraus die Eingabe-Snapshots.
+     * @param tickEnd Zeitpunkt, bis zu dem dieser Tick simuliert
+     * @param now aktuelle Zeit, um die Latenz zu messen
+     */
+    public void advance(long tickEnd, long now) {
+        while (head != tail && eventTimes[head & MASK] <= tickEnd) {
+            apply(head & MASK, now);
+            head++;
+        }
+        for (int player = 0; player < 2; player++) {
+            snapshot[player] = held[player] | tapped[player];
+            tapped[player] = 0;
+        }
+    }
+
+    private void apply(int slot, long now) {
+        int binding = eventBindings[slot];
+        int player = binding >>> 8;
+        int bit = binding & 0xFF;
+        if (eventPressed[slot]) {
+            if ((held[player] & bit) == 0 && now != Long.MIN_VALUE) {
+                latency.record(now - eventTimes[slot]);
+            }
+            held[player] |= bit;
+            tapped[player] |= bit;
+        } else {
+            held[player] &= ~bit;
+        }
+    }
+
+    /**
+     * Eingabe-Bits eines Spielers für den aktuellen Tick.
+     * @param player 0 für Spieler 1, 1 für Spieler 2
+     */
+    public int getInput(int player) {
+        return snapshot[player];
+    }
+
+    /**
+     * Vergisst alles - z.B. wenn die Arena pausiert wird.
+     */
+    public void clear() {
+        head = tail;
+        for (int player = 0; player < 2; player++) {
+            held[player] = 0;
+            tapped[player] = 0;
+            snapshot[player] = 0;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.game;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+/**
+ * Simuliert eine schlechte Leitung vor einem anderen Transport.
+ * Ausgehende Pakete werden verzögert (mit Jitter, also auch mal vertauscht)
+ * oder gehen mit der eingestellten Wahrscheinlichkeit ganz verloren.
+ */
+public final class LaggyTransport implements NetTransport {
+
+    private record Pending(long due, long sequence, byte[] data) {}
+
+    private final NetTransport inner;
+    private final long delayNanos;
+    private final long jitterNanos;
+    private final double lossChance;
+    private final Random random;
+    private final LongSupplier clock;
+    private final PriorityQueue<Pending> pending = new PriorityQueue<>(
+        (a, b) -> a.due() != b.due() ? Long.compare(a.due(), b.due()) : Long.compare(a.sequence(), b.sequence()));
+    private long sequence = 0;
+    private long dropped = 0;
+
+    /**
+     * @param delayMillis Verzögerung in eine Richtung
+     * @param jitterMillis zusätzliche zufällige Verzögerung 0..jitter
+     * @param lossPercent Anteil verlorener Pakete in Prozent
+     * @param clock Zeitquelle in Nanosekunden (System::nanoTime oder eine simulierte Uhr)
+     */
+    public LaggyTransport(NetTransport inner, int delayMillis, int jitterMillis, double lossPercent,
+                          long seed, LongSupplier clock) {
+        this.inner = inner;
+        this.delayNanos = delayMillis * 1_000_000L;
+        this.jitterNanos = jitterMillis * 1_000_000L;
+        this.lossChance = lossPercent / 100.0;
+        this.random = new Random(seed);
+        this.clock = clock;
+    }
+
+    @Override
+    public void send(byte[] data, int length) throws IOException {
+        if (random.nextDouble() < lossChance) {
+            dropped++;
+        } else {
+            long jitter = jitterNanos > 0 ? (long) (random.nextDouble() * jitterNanos) : 0;
+            pending.add(new Pending(clock.getAsLong() + delayNanos + jitter, sequence++, Arrays.copyOf(data, length)));
+        }
+        flush();
+    }
+
+    @Override
+    public int receive(byte[] into) throws IOException {
+        flush();
+        return inner.receive(into);
+    }
+
+    /**
+     * Gibt alle Pakete weiter, deren Verzögerung abgelaufen ist.
+     */
+    private void flush() throws IOException {
+        long now = clock.getAsLong();
+        while (!pending.isEmpty() && pending.peek().due() <= now) {
+            byte[] data = pending.poll().data();
+            inner.send(data, data.length);
+        }
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inner.close();
+    }
+}
@@ -0,0 +1,172 @@
+package com.game;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Die Bestenliste als Index, der bei neuen Siegen nachgeführt wird statt jedes Mal alles zu sortieren.
+ *
+ * Die Spieler liegen in Eimern pro Siegzahl (absteigend sortiert) - die Top N sind damit
+ * einfach die ersten N Namen aus den obersten Eimern. Für "welcher Platz bin ich"
+ * zählt ein Fenwick-Baum, wie viele Spieler welche Siegzahl haben: O(log Siege) statt alle durchzugehen.
+ *
+ * Lesen geht parallel, Änderungen sind exklusiv - jede Abfrage sieht also einen
+ * Stand, der so auch wirklich existiert hat.
+ */
+public final class Leaderboard {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Siege pro Spieler, so wie sie gerade im Index stehen */
+    private final Map<String, Integer> indexed = new HashMap<>();
+    /** Siegzahl -> Spieler, höchste zuerst; bei Gleichstand zählt wer zuerst da war */
+    private final TreeMap<Integer, LinkedHashSet<String>> buckets = new TreeMap<>(Comparator.reverseOrder());
+    /** Fenwick-Baum über die Anzahl Spieler pro Siegzahl (Index = Siege + 1) */
+    private long[] tree = new long[64];
+
+    /**
+     * Baut den Index komplett neu auf - z.B. nach dem Laden.
+     */
+    public void rebuild(Map<String, Integer> wins) {
+        lock.writeLock().lock();
+        try {
+            indexed.clear();
+            buckets.clear();
+            wins.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    indexed.put(entry.getKey(), entry.getValue());
+                    buckets.computeIfAbsent(entry.getValue(), w -> new LinkedHashSet<>()).add(entry.getKey());
+                });
+            rebuildTree(buckets.isEmpty() ? 0 : buckets.firstKey());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Trägt einen neuen Stand für einen Spieler ein.
+     * Siege werden nur mehr - kommt ein älterer Stand zu spät an, wird er ignoriert.
+     */
+    public void update(String name, int wins) {
+        lock.writeLock().lock();
+        try {
+            Integer old = indexed.get(name);
+            if (old != null && old >= wins) {
+                return;
+            }
+            indexed.put(name, wins);
+            if (old != null) {
+                LinkedHashSet<String> bucket = buckets.get(old);
+                bucket.remove(name);
+                if (bucket.isEmpty()) {
+                    buckets.remove(old);
+                }
+                add(old, -1);
+            }
+            buckets.computeIfAbsent(wins, w -> new LinkedHashSet<>()).add(name);
+            add(wins, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Die besten Spieler - O(count), egal wie viele es insgesamt gibt.
+     */
+    public List<Map.Entry<String, Integer>> top(int count) {
+        lock.readLock().lock();
+        try {
+            List<Map.Entry<String, Integer>> result = new ArrayList<>(Math.min(count, indexed.size()));
+            for (Map.Entry<Integer, LinkedHashSet<String>> bucket : buckets.entrySet()) {
+                for (String name : bucket.getValue()) {
+                    if (result.size() == count) {
+                        return result;
+                    }
+                    result.add(Map.entry(name, bucket.getKey()));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Platz eines Spielers: 1 + Anzahl Spieler mit mehr Siegen.
+     * Gleich viele Siege = gleicher Platz.
+     * @return 0 wenn der Spieler unbekannt ist
+     */
+    public int rank(String name) {
+        lock.readLock().lock();
+        try {
+            Integer wins = indexed.get(name);
+            if (wins == null) {
+                return 0;
+            }
+            return (int) (indexed.size() - prefixSum(wins)) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return indexed.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Alle Spieler sortiert - für eine komplette Bestenliste.
+     */
+    public List<Map.Entry<String, Integer>> all() {
+        return top(Integer.MAX_VALUE);
+    }
+
+    /** Fenwick: Anzahl Spieler mit höchstens {@code wins} Siegen */
+    private long prefixSum(int wins) {
+        long sum = 0;
+        for (int i = Math.min(wins + 1, tree.length - 1); i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private void add(int wins, int delta) {
+        if (wins + 1 >= tree.length) {
+            // New record - grow the tree; rebuilding from the buckets already includes this change
+            rebuildTree(wins);
+            return;
+        }
+        for (int i = wins + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private void rebuildTree(int maxWins) {
+        int length = tree.length;
+        while (maxWins + 1 >= length) {
+            length *= 2;
+        }
+        tree = new long[length];
+        for (Map.Entry<Integer, LinkedHashSet<String>> bucket : buckets.entrySet()) {
+            tree[bucket.getKey() + 1] += bucket.getValue().size();
+        }
+        // Linear-time Fenwick construction
+        for (int i = 1; i < length; i++) {
+            int parent = i + (i & -i);
+            if (parent < length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
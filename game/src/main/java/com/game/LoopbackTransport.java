@@ -0,0 +1,46 @@
+package com.game;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Zwei direkt verbundene Enden im selben Prozess.
+ * Zum Testen des Netzwerkspiels auf einem Rechner, z.B. zusammen mit {@link LaggyTransport}.
+ */
+public final class LoopbackTransport implements NetTransport {
+    private final Queue<byte[]> incoming;
+    private final Queue<byte[]> outgoing;
+
+    private LoopbackTransport(Queue<byte[]> incoming, Queue<byte[]> outgoing) {
+        this.incoming = incoming;
+        this.outgoing = outgoing;
+    }
+
+    /**
+     * Erstellt zwei miteinander verbundene Enden.
+     */
+    public static LoopbackTransport[] createPair() {
+        Queue<byte[]> aToB = new ConcurrentLinkedQueue<>();
+        Queue<byte[]> bToA = new ConcurrentLinkedQueue<>();
+        return new LoopbackTransport[] {
+            new LoopbackTransport(bToA, aToB),
+            new LoopbackTransport(aToB, bToA)
+        };
+    }
+
+    @Override
+    public void send(byte[] data, int length) {
+        outgoing.add(Arrays.copyOf(data, length));
+    }
+
+    @Override
+    public int receive(byte[] into) {
+        byte[] packet = incoming.poll();
+        if (packet == null) {
+            return -1;
+        }
+        System.arraycopy(packet, 0, into, 0, packet.length);
+        return packet.length;
+    }
+}
@@ -1,6 +1,7 @@
 package com.game;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
@@ -14,16 +15,31 @@ public class Main extends Application {
 
     /**
      * Wird von JavaFX aufgerufen um die Anwendung zu starten.
-     * Erstellt das Hauptfenster und den GameManager.
+     * Erstellt das Hauptfenster und den GameManager und startet das Laden der Bilder.
      */
     @Override
     public void start(Stage primaryStage) {
+        // Start decoding the images right away, the menu shows the progress
+        AssetManager.loadAll().thenRun(() -> Platform.runLater(() -> gameManager.reportAssetFailures()));
+        // Balancing: edits to ~/GameData/characters.json apply from the next match on
+        Archetypes.watch();
         gameManager = new GameManager(primaryStage);
         primaryStage.setTitle("2D Fighting Game");
         primaryStage.setScene(new Scene(gameManager.getMainMenu(), 800, 600));
         primaryStage.show();
     }
 
+    /**
+     * Wird von JavaFX beim Schließen des Fensters aufgerufen.
+     * Stoppt den Gameloop und speichert ein letztes Mal.
+     */
+    @Override
+    public void stop() {
+        if (gameManager != null) {
+            gameManager.shutdown();
+        }
+    }
+
     /**
      * Programmstart - übergibt direkt an JavaFX.
      */
@@ -0,0 +1,412 @@
+package com.game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Alle gespielten Matches in einer kompakten Binärdatei.
+ * Die Datei ist in den Speicher gemappt - Millionen Matches kosten damit keinen Heap,
+ * das Betriebssystem lädt nur die Seiten, die eine Abfrage auch wirklich anschaut.
+ * Abfragen laufen parallel in Blöcken über die Datei.
+ *
+ * Dateien in ~/GameData:
+ * <pre>
+ *   matches.bin         Kopf (16 Bytes) + ein Eintrag mit 32 Bytes pro Match
+ *   matches.names       Spielernamen, einer pro Zeile - die Zeilennummer ist die ID im Eintrag
+ *   matches.characters  Charakternamen, genauso - eine eigene kleine Tabelle, damit die IDs in ein short passen
+ * </pre>
+ * Version 1 hatte nur eine Tabelle für beide. Solche Dateien werden beim Öffnen einmal umgeschrieben.
+ * Ein Eintrag zählt erst, wenn die Anzahl im Kopf hochgezählt wurde -
+ * ein Absturz mitten im Schreiben hinterlässt also nie einen halben Eintrag.
+ */
+public final class MatchHistory implements Closeable {
+    /**
+     * Ein beendetes Match; winner ist 1, 2 oder 0 bei Unentschieden.
+     * rated = zählt für die Elo-Wertung (nicht bei Matches gegen den Computer).
+     */
+    public record Match(long timeMillis, String player1, String player2, String character1, String character2,
+                        int winner, int durationTicks, int health1, int health2, int damage1, int damage2,
+                        boolean rated) {}
+
+    /**
+     * Nur die Ergebnisse aller Matches als Arrays - für eine komplette Neuberechnung der Wertung.
+     * names[id] ist der Name zu einer ID, winner ist -1 bei nicht gewerteten Matches.
+     */
+    public record Results(String[] names, int[] player1, int[] player2, byte[] winner) {}
+
+    /**
+     * Ergebnis einer Abfrage, immer aus Sicht der ersten Seite
+     * (der erste Charakter bzw. der erste Spieler der Abfrage).
+     */
+    public record Stats(int games, int wins, int losses, long durationTicks, long damageDealt, long damageTaken) {
+        public static final Stats EMPTY = new Stats(0, 0, 0, 0, 0, 0);
+
+        public Stats add(Stats other) {
+            return new Stats(games + other.games, wins + other.wins, losses + other.losses,
+                durationTicks + other.durationTicks, damageDealt + other.damageDealt, damageTaken + other.damageTaken);
+        }
+
+        public int draws() {
+            return games - wins - losses;
+        }
+
+        public double winRate() {
+            return games == 0 ? 0 : (double) wins / games;
+        }
+
+        public double averageSeconds() {
+            return games == 0 ? 0 : (double) durationTicks / games / MatchSimulation.TICKS_PER_SECOND;
+        }
+    }
+
+    private static final int MAGIC = 0x4D544348; // "MTCH"
+    private static final short VERSION = 2;
+    private static final int HEADER_BYTES = 16;
+    private static final int COUNT_OFFSET = 8;
+    private static final int RECORD_BYTES = 32;
+
+    /** Aufbau eines Eintrags */
+    private static final int TIME = 0;        // int, Sekunden seit 1970 (unsigned)
+    private static final int PLAYER1 = 4;     // int, Namens-ID
+    private static final int PLAYER2 = 8;     // int
+    private static final int CHARACTER1 = 12; // short, Charakter-ID
+    private static final int CHARACTER2 = 14; // short
+    private static final int DURATION = 16;   // int, Ticks
+    private static final int HEALTH1 = 20;    // short, Leben am Ende
+    private static final int HEALTH2 = 22;    // short
+    private static final int DAMAGE1 = 24;    // short, ausgeteilter Schaden
+    private static final int DAMAGE2 = 26;    // short
+    private static final int WINNER = 28;     // byte
+    private static final int FLAGS = 29;      // byte, bytes 30-31 reserved
+    /** Flag: zählt nicht für die Wertung - 0 ist der Normalfall, damit ältere Einträge gewertet bleiben */
+    private static final byte UNRATED = 1;
+
+    /** Platz für so viele Matches wird am Anfang reserviert, danach verdoppelt */
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    /** Eine Abfrage verteilt sich in Blöcken dieser Größe auf die Kerne */
+    private static final int SCAN_BLOCK = 1 << 16;
+
+    /** Welche Seite eines Eintrags zur Abfrage passt: 1, 2 oder 0 für keine */
+    @FunctionalInterface
+    private interface Matcher {
+        int side(MappedByteBuffer data, int offset);
+    }
+
+    private final Path dataPath;
+    private final Path namesPath;
+    private final Path charactersPath;
+
+    private FileChannel channel;
+    private volatile MappedByteBuffer data;
+    /** Anzahl gültiger Einträge - wird erst nach dem Eintrag selbst hochgezählt */
+    private volatile int count = 0;
+    private int capacity = 0;
+
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> characterNames = new ArrayList<>();
+    private final Map<String, Integer> characterIds = new HashMap<>();
+
+    public MatchHistory(Path directory) {
+        this.dataPath = directory.resolve("matches.bin");
+        this.namesPath = directory.resolve("matches.names");
+        this.charactersPath = directory.resolve("matches.characters");
+    }
+
+    /**
+     * Öffnet die Dateien oder legt sie neu an.
+     */
+    public synchronized void open() throws IOException {
+        readNames(namesPath, names, ids);
+        readNames(charactersPath, characterNames, characterIds);
+        channel = FileChannel.open(dataPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean fresh = channel.size() < HEADER_BYTES;
+        long stored = fresh ? 0 : (channel.size() - HEADER_BYTES) / RECORD_BYTES;
+        map((int) Math.max(INITIAL_CAPACITY, stored));
+        if (fresh) {
+            data.putInt(0, MAGIC);
+            data.putShort(4, VERSION);
+            data.putShort(6, (short) RECORD_BYTES);
+            data.putLong(COUNT_OFFSET, 0);
+        } else if (data.getInt(0) != MAGIC || data.getShort(6) != RECORD_BYTES) {
+            throw new IOException("Not a match history file: " + dataPath);
+        } else if (data.getShort(4) > VERSION) {
+            throw new IOException("Match history is from a newer version: " + dataPath);
+        }
+        count = (int) Math.min(data.getLong(COUNT_OFFSET), stored);
+        if (data.getShort(4) < VERSION) {
+            migrateCharacters();
+        }
+    }
+
+    private static void readNames(Path path, List<String> table, Map<String, Integer> index) throws IOException {
+        if (Files.exists(path)) {
+            for (String name : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                index.putIfAbsent(name, table.size());
+                table.add(name);
+            }
+        }
+    }
+
+    /**
+     * Version 1 hat die Charaktere in der Namenstabelle der Spieler gespeichert und die ID auf ein short gekürzt.
+     * Jetzt bekommen sie ihre eigene Tabelle - jeder Eintrag wird einmal umgeschrieben, danach gilt Version 2.
+     * IDs, die schon damals nicht mehr passten, sind nicht mehr zu retten und werden zu "?".
+     */
+    private void migrateCharacters() throws IOException {
+        for (int i = 0; i < count; i++) {
+            int offset = HEADER_BYTES + i * RECORD_BYTES;
+            data.putShort(offset + CHARACTER1, migratedCharacter(data.getShort(offset + CHARACTER1)));
+            data.putShort(offset + CHARACTER2, migratedCharacter(data.getShort(offset + CHARACTER2)));
+        }
+        data.force();
+        data.putShort(4, VERSION);
+        data.force();
+    }
+
+    private short migratedCharacter(short old) throws IOException {
+        int nameId = Short.toUnsignedInt(old);
+        return (short) characterId(nameId < names.size() ? names.get(nameId) : "?");
+    }
+
+    private void map(int records) throws IOException {
+        long bytes = HEADER_BYTES + (long) records * RECORD_BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Match history is full (" + count + " matches)");
+        }
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        capacity = records;
+        data = mapped;
+    }
+
+    /**
+     * Hängt ein Match an. Wird nur vom Speicher-Thread aufgerufen.
+     */
+    public synchronized void append(Match match) throws IOException {
+        if (count == capacity) {
+            map((int) Math.min((long) capacity * 2, (Integer.MAX_VALUE - HEADER_BYTES) / RECORD_BYTES));
+        }
+        int p1 = id(match.player1());
+        int p2 = id(match.player2());
+        int c1 = characterId(match.character1());
+        int c2 = characterId(match.character2());
+
+        MappedByteBuffer buffer = data;
+        int offset = HEADER_BYTES + count * RECORD_BYTES;
+        buffer.putInt(offset + TIME, (int) (match.timeMillis() / 1000));
+        buffer.putInt(offset + PLAYER1, p1);
+        buffer.putInt(offset + PLAYER2, p2);
+        buffer.putShort(offset + CHARACTER1, (short) c1);
+        buffer.putShort(offset + CHARACTER2, (short) c2);
+        buffer.putInt(offset + DURATION, match.durationTicks());
+        buffer.putShort(offset + HEALTH1, (short) match.health1());
+        buffer.putShort(offset + HEALTH2, (short) match.health2());
+        buffer.putShort(offset + DAMAGE1, (short) match.damage1());
+        buffer.putShort(offset + DAMAGE2, (short) match.damage2());
+        buffer.put(offset + WINNER, (byte) match.winner());
+        buffer.put(offset + FLAGS, match.rated() ? 0 : UNRATED);
+        // Publish only after the entry is complete
+        buffer.putLong(COUNT_OFFSET, count + 1L);
+        count++;
+    }
+
+    /** ID eines Spielernamens, neue Namen werden zuerst in die Namensdatei geschrieben */
+    private int id(String name) throws IOException {
+        return id(name, namesPath, names, ids, Integer.MAX_VALUE);
+    }
+
+    /** ID eines Charakters - passt in ein short, mehr als 32767 verschiedene Charaktere werden abgelehnt */
+    private int characterId(String name) throws IOException {
+        return id(name, charactersPath, characterNames, characterIds, Short.MAX_VALUE);
+    }
+
+    private static int id(String name, Path path, List<String> table, Map<String, Integer> index, int maxId)
+            throws IOException {
+        String clean = name == null ? "?" : name.replace('\n', ' ').replace('\r', ' ');
+        Integer id = index.get(clean);
+        if (id != null) {
+            return id;
+        }
+        if (table.size() > maxId) {
+            throw new IOException("Too many names in " + path.getFileName() + ", cannot add " + clean);
+        }
+        Files.writeString(path, clean + "\n", StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        index.put(clean, table.size());
+        table.add(clean);
+        return table.size() - 1;
+    }
+
+    private synchronized Integer lookup(String name) {
+        return ids.get(name);
+    }
+
+    private synchronized Integer lookupCharacter(String name) {
+        return characterIds.get(name);
+    }
+
+    /**
+     * Wie schneidet Charakter a gegen Charakter b ab - egal auf welcher Seite er stand.
+     * Bei einem Spiegel-Match (a == b) zählt Spieler 1 als a.
+     */
+    public Stats characterMatchup(String a, String b) {
+        Integer idA = lookupCharacter(a);
+        Integer idB = lookupCharacter(b);
+        if (idA == null || idB == null) {
+            return Stats.EMPTY;
+        }
+        short first = (short) (int) idA;
+        short second = (short) (int) idB;
+        return scan((buffer, offset) -> {
+            short c1 = buffer.getShort(offset + CHARACTER1);
+            short c2 = buffer.getShort(offset + CHARACTER2);
+            if (c1 == first && c2 == second) {
+                return 1;
+            }
+            return c1 == second && c2 == first ? 2 : 0;
+        });
+    }
+
+    /**
+     * Alle Matches eines Charakters, egal gegen wen.
+     */
+    public Stats character(String type) {
+        Integer id = lookupCharacter(type);
+        if (id == null) {
+            return Stats.EMPTY;
+        }
+        short wanted = (short) (int) id;
+        return scan((buffer, offset) -> {
+            if (buffer.getShort(offset + CHARACTER1) == wanted) {
+                return 1;
+            }
+            return buffer.getShort(offset + CHARACTER2) == wanted ? 2 : 0;
+        });
+    }
+
+    /**
+     * Direkter Vergleich zweier Spieler aus Sicht von Spieler a.
+     */
+    public Stats headToHead(String a, String b) {
+        Integer idA = lookup(a);
+        Integer idB = lookup(b);
+        if (idA == null || idB == null) {
+            return Stats.EMPTY;
+        }
+        int first = idA;
+        int second = idB;
+        return scan((buffer, offset) -> {
+            int p1 = buffer.getInt(offset + PLAYER1);
+            int p2 = buffer.getInt(offset + PLAYER2);
+            if (p1 == first && p2 == second) {
+                return 1;
+            }
+            return p1 == second && p2 == first ? 2 : 0;
+        });
+    }
+
+    /**
+     * Geht alle Einträge durch - parallel in Blöcken, ohne etwas auf den Heap zu laden.
+     */
+    private Stats scan(Matcher matcher) {
+        // Read the count first: the mapping read afterwards is at least that large
+        int total = count;
+        MappedByteBuffer buffer = data;
+        if (buffer == null || total == 0) {
+            return Stats.EMPTY;
+        }
+        int blocks = (total + SCAN_BLOCK - 1) / SCAN_BLOCK;
+        return IntStream.range(0, blocks).parallel()
+            .mapToObj(block -> scanBlock(buffer, matcher, block * SCAN_BLOCK, Math.min(total, (block + 1) * SCAN_BLOCK)))
+            .reduce(Stats.EMPTY, Stats::add);
+    }
+
+    private static Stats scanBlock(MappedByteBuffer buffer, Matcher matcher, int from, int to) {
+        int games = 0;
+        int wins = 0;
+        int losses = 0;
+        long duration = 0;
+        long dealt = 0;
+        long taken = 0;
+        for (int i = from; i < to; i++) {
+            int offset = HEADER_BYTES + i * RECORD_BYTES;
+            int side = matcher.side(buffer, offset);
+            if (side == 0) {
+                continue;
+            }
+            int winner = buffer.get(offset + WINNER);
+            games++;
+            if (winner == side) {
+                wins++;
+            } else if (winner != 0) {
+                losses++;
+            }
+            duration += buffer.getInt(offset + DURATION);
+            dealt += buffer.getShort(offset + (side == 1 ? DAMAGE1 : DAMAGE2));
+            taken += buffer.getShort(offset + (side == 1 ? DAMAGE2 : DAMAGE1));
+        }
+        return new Stats(games, wins, losses, duration, dealt, taken);
+    }
+
+    /**
+     * Liest alle Ergebnisse in Arrays - parallel in Blöcken.
+     */
+    public Results results() {
+        int total = count;
+        MappedByteBuffer buffer = data;
+        String[] snapshot;
+        synchronized (this) {
+            snapshot = names.toArray(new String[0]);
+        }
+        int[] player1 = new int[total];
+        int[] player2 = new int[total];
+        byte[] winner = new byte[total];
+        int blocks = (total + SCAN_BLOCK - 1) / SCAN_BLOCK;
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            for (int i = block * SCAN_BLOCK, end = Math.min(total, i + SCAN_BLOCK); i < end; i++) {
+                int offset = HEADER_BYTES + i * RECORD_BYTES;
+                player1[i] = buffer.getInt(offset + PLAYER1);
+                player2[i] = buffer.getInt(offset + PLAYER2);
+                winner[i] = (buffer.get(offset + FLAGS) & UNRATED) != 0 ? -1 : buffer.get(offset + WINNER);
+            }
+        });
+        return new Results(snapshot, player1, player2, winner);
+    }
+
+    /**
+     * Anzahl gespeicherter Matches.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Schreibt die geänderten Seiten auf die Platte.
+     */
+    public synchronized void flush() {
+        if (data != null) {
+            data.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
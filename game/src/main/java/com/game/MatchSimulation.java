@@ -0,0 +1,283 @@
+package com.game;
+
+/**
+ * Ein komplettes 1v1-Match als reine Simulation.
+ * Kein JavaFX, keine Uhrzeit - nur Ticks und Eingaben.
+ * Damit laufen Matches auch headless, z.B. für Balancing oder einen Server.
+ */
+public final class MatchSimulation {
+    /** Die Simulation läuft mit festen 60 Ticks pro Sekunde */
+    public static final int TICKS_PER_SECOND = 60;
+
+    /** Eingabe-Bits pro Spieler und Tick */
+    public static final int INPUT_LEFT = 1;
+    public static final int INPUT_RIGHT = 1 << 1;
+    public static final int INPUT_JUMP = 1 << 2;
+    public static final int INPUT_ATTACK = 1 << 3;
+    public static final int INPUT_SPECIAL = 1 << 4;
+
+    /** Startpositionen der beiden Kämpfer */
+    private static final double P1_START_X = 200;
+    private static final double P2_START_X = 600;
+
+    /** Die beiden Kämpfer */
+    private Fighter player1;
+    private Fighter player2;
+
+    /** Was die Fernkämpfer verschossen haben */
+    private final Projectiles projectiles = new Projectiles();
+    /** 1v1: ein Projektil kann nur den Gegner seines Besitzers treffen */
+    private final Projectiles.Targets opponents = new Projectiles.Targets() {
+        @Override
+        public int findTarget(int owner, double x, double y) {
+            return Projectiles.hits(getPlayer(1 - owner), x, y) ? 1 - owner : -1;
+        }
+
+        @Override
+        public Fighter fighter(int slot) {
+            return getPlayer(slot);
+        }
+    };
+
+    /** Eingaben des letzten Ticks - ein Fehlschlag wird nur beim Drücken gemeldet, nicht solange die Taste gehalten wird */
+    private final int[] previousInputs = new int[2];
+
+    /** Aktueller Tick und Spielstatus */
+    private long tick = 0;
+    private boolean gameOver = false;
+    private int winner = 0;
+
+    /** Treffer, Fehlschläge, Cooldowns und K.O. für HUD und Arena - gehört nicht zum Spielzustand */
+    private final CombatEvents events = new CombatEvents();
+
+    /**
+     * Erstellt ein neues Match mit zwei Kämpfern.
+     */
+    public MatchSimulation(String p1Type, String p2Type) {
+        reset(p1Type, p2Type);
+    }
+
+    /**
+     * Rechnet Millisekunden in Ticks um.
+     */
+    static int ticks(long millis) {
+        return (int) (millis * TICKS_PER_SECOND / 1000);
+    }
+
+    /**
+     * Ein Simulationsschritt.
+     * Koordiniert Bewegung, Angriffe und Spielphysik - genau wie früher update().
+     */
+    public void step(int p1Input, int p2Input) {
+        if (gameOver) {
+            return;
+        }
+        tick++;
+        player1.beginTick();
+        player2.beginTick();
+        handleMovement(player1, p1Input);
+        handleMovement(player2, p2Input);
+        handleAttacks(player1, player2, p1Input);
+        handleAttacks(player2, player1, p2Input);
+        projectiles.step(opponents, tick, events);
+        update(player1);
+        update(player2);
+        checkGameOver();
+    }
+
+    /**
+     * Physik-Tick eines Kämpfers, meldet dabei, wenn der Spezialangriff wieder bereit ist.
+     */
+    private void update(Fighter fighter) {
+        fighter.update(tick);
+        if (!events.hasListeners()) {
+            return;
+        }
+        if (fighter.isStrongAttackReady(tick) && !fighter.isStrongAttackReady(tick - 1)) {
+            events.publish(CombatEvents.Type.COOLDOWN_READY, tick, slot(fighter), 1 - slot(fighter), 0, 0, true);
+        }
+    }
+
+    private int slot(Fighter fighter) {
+        return fighter == player1 ? 0 : 1;
+    }
+
+    /**
+     * Verarbeitet die Bewegungseingaben eines Spielers.
+     */
+    private void handleMovement(Fighter fighter, int input) {
+        if ((input & INPUT_LEFT) != 0) {
+            fighter.moveLeft();
+        }
+        if ((input & INPUT_RIGHT) != 0) {
+            fighter.moveRight();
+        }
+        if ((input & INPUT_JUMP) != 0) {
+            fighter.jump();
+        }
+    }
+
+    /**
+     * Löst normale oder starke Angriffe aus, wenn die Tasten gedrückt sind.
+     */
+    private void handleAttacks(Fighter attacker, Fighter target, int input) {
+        int slot = slot(attacker);
+        boolean pressed = (input & ~previousInputs[slot] & (INPUT_ATTACK | INPUT_SPECIAL)) != 0;
+        previousInputs[slot] = input;
+        if ((input & (INPUT_ATTACK | INPUT_SPECIAL)) != 0) {
+            handleAttack(attacker, target, (input & INPUT_SPECIAL) != 0, pressed);
+        }
+    }
+
+    /**
+     * Zentrale Methode für alle Angriffe.
+     * Verarbeitet normale und starke Angriffe, prüft Reichweiten und Cooldowns.
+     * Fernkämpfer schießen Projektile, getroffen wird dann in {@link Projectiles#step}.
+     */
+    void handleAttack(Fighter attacker, Fighter target, boolean isStrongAttack) {
+        handleAttack(attacker, target, isStrongAttack, true);
+    }
+
+    /**
+     * @param pressed die Taste wurde in diesem Tick gedrückt - nur dann zählt ein Fehlschlag als WHIFF
+     */
+    private void handleAttack(Fighter attacker, Fighter target, boolean isStrongAttack, boolean pressed) {
+        // Prüfe ob Angriff möglich
+        if (isStrongAttack && !attacker.canUseStrongAttack(tick)) {
+            return;
+        }
+        if (!attacker.canAttack()) {
+            return;
+        }
+
+        // Unterscheide zwischen Nah- und Fernkampf
+        if (attacker.isRanged()) {
+            // Always fires - whether it hits is decided while the projectiles fly
+            projectiles.fire(slot(attacker), attacker, target, isStrongAttack);
+            attacker.setAttackCooldown(tick);
+            if (isStrongAttack) {
+                attacker.setStrongAttackCooldown(tick);
+            }
+            return;
+        }
+
+        int healthBefore = target.getHealth();
+        if (attacker.attack(target, isStrongAttack, tick) && isStrongAttack) {
+            attacker.setStrongAttackCooldown(tick);
+        }
+
+        if (attacker.canAttack()) {
+            if (!pressed) {
+                return;
+            }
+            events.publish(CombatEvents.Type.WHIFF, tick, slot(attacker), slot(target), 0, 0, isStrongAttack);
+        } else {
+            events.publish(CombatEvents.Type.DAMAGE, tick, slot(attacker), slot(target),
+                           healthBefore - target.getHealth(), target.getHealth(), isStrongAttack);
+        }
+    }
+
+    /**
+     * Prüft ob ein Spieler gewonnen hat.
+     */
+    private void checkGameOver() {
+        if (player1.getHealth() <= 0 || player2.getHealth() <= 0) {
+            gameOver = true;
+            winner = player2.getHealth() <= 0 ? 1 : 2;
+            events.publish(CombatEvents.Type.KO, tick, winner - 1, 2 - winner, 0, 0, false);
+        }
+    }
+
+    /**
+     * Neue Runde mit denselben Charakteren.
+     */
+    public void reset() {
+        player1.reset();
+        player2.reset();
+        projectiles.clear();
+        previousInputs[0] = 0;
+        previousInputs[1] = 0;
+        tick = 0;
+        gameOver = false;
+        winner = 0;
+        resync();
+    }
+
+    /**
+     * Neue Runde mit neuen Charakteren.
+     */
+    public void reset(String p1Type, String p2Type) {
+        player1 = new Fighter(p1Type, P1_START_X);
+        player2 = new Fighter(p2Type, P2_START_X);
+        projectiles.clear();
+        previousInputs[0] = 0;
+        previousInputs[1] = 0;
+        tick = 0;
+        gameOver = false;
+        winner = 0;
+        resync();
+    }
+
+    /**
+     * Übernimmt den Zustand eines anderen Matches.
+     * Solange die Charaktere gleich bleiben wird dabei nichts neu angelegt.
+     */
+    public void copyFrom(MatchSimulation other) {
+        if (player1.getArchetype() != other.player1.getArchetype()
+                || player2.getArchetype() != other.player2.getArchetype()) {
+            reset(other.player1.getType(), other.player2.getType());
+        }
+        player1.copyFrom(other.player1);
+        player2.copyFrom(other.player2);
+        projectiles.copyFrom(other.projectiles);
+        previousInputs[0] = other.previousInputs[0];
+        previousInputs[1] = other.previousInputs[1];
+        tick = other.tick;
+        gameOver = other.gameOver;
+        winner = other.winner;
+        resync();
+    }
+
+    /**
+     * Der Zustand ist ein anderer als nach den bisherigen Ereignissen - die sind damit hinfällig.
+     * Nach einem Rollback kommen die Ereignisse der neu gerechneten Ticks noch einmal.
+     */
+    private void resync() {
+        events.clear();
+        events.publish(CombatEvents.Type.RESYNC, tick, 0, -1, 0, 0, false);
+    }
+
+    /**
+     * Prüfsumme über das ganze Match - für den Abgleich beim Netzwerkspiel.
+     */
+    public long checksum() {
+        long hash = player1.checksum();
+        hash = hash * 31 + player2.checksum();
+        hash = hash * 31 + projectiles.checksum();
+        hash = hash * 31 + tick;
+        hash = hash * 31 + winner;
+        return hash;
+    }
+
+    public Fighter getPlayer1() { return player1; }
+    public Fighter getPlayer2() { return player2; }
+
+    /**
+     * @param slot 0 für Spieler 1, 1 für Spieler 2
+     */
+    public Fighter getPlayer(int slot) { return slot == 0 ? player1 : player2; }
+    public Projectiles getProjectiles() { return projectiles; }
+    public long getTick() { return tick; }
+
+    /**
+     * Die Ereignisse dieses Matches. Nicht Teil des Zustands - {@link #copyFrom} und {@link #checksum}
+     * fassen sie nicht an, Kopien haben ihren eigenen (meist stillen) Bus.
+     */
+    public CombatEvents events() { return events; }
+    public boolean isGameOver() { return gameOver; }
+
+    /**
+     * @return 1 oder 2 für den Sieger, 0 solange das Match läuft
+     */
+    public int getWinner() { return winner; }
+}
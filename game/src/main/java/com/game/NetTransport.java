@@ -0,0 +1,29 @@
+package com.game;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Verschickt und empfängt einzelne Pakete für das Netzwerkspiel.
+ * Pakete dürfen verloren gehen oder vertauscht ankommen - darum kümmert sich die {@link RollbackSession}.
+ * Beide Methoden blockieren nie.
+ */
+public interface NetTransport extends Closeable {
+
+    /** Maximale Paketgröße */
+    int MAX_PACKET = 512;
+
+    /**
+     * Verschickt ein Paket.
+     */
+    void send(byte[] data, int length) throws IOException;
+
+    /**
+     * Holt das nächste angekommene Paket.
+     * @return Länge des Pakets, oder -1 wenn gerade keins da ist
+     */
+    int receive(byte[] into) throws IOException;
+
+    @Override
+    default void close() throws IOException {}
+}
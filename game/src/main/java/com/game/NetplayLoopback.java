@@ -0,0 +1,143 @@
+package com.game;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Testmodus für den Rollback-Netcode auf einem einzigen Rechner.
+ * Zwei {@link RollbackSession}s spielen über eine simulierte Leitung mit
+ * Verzögerung, Jitter und Paketverlust gegeneinander. Die Zeit ist simuliert,
+ * ein Match dauert also nur Millisekunden. Nach jedem Tick wird die Prüfsumme
+ * des bestätigten Zustands verglichen - jeder Unterschied ist ein Desync.
+ *
+ * Aufruf: java -cp game.jar com.game.NetplayLoopback --delay=80 --jitter=20 --loss=5 --matches=20
+ */
+public final class NetplayLoopback {
+    private static final long TICK_NANOS = 1_000_000_000L / MatchSimulation.TICKS_PER_SECOND;
+    private static final int MAX_FRAMES = 20 * 60 * MatchSimulation.TICKS_PER_SECOND;
+
+    private NetplayLoopback() {}
+
+    public static void main(String[] args) {
+        int delay = intArg(args, "delay", 60);
+        int jitter = intArg(args, "jitter", 15);
+        double loss = intArg(args, "loss", 5);
+        int matches = intArg(args, "matches", 10);
+
+        System.out.printf("Delay %d ms (+0..%d ms jitter), %.0f%% loss, %d matches%n", delay, jitter, loss, matches);
+        int desyncs = 0;
+        for (int match = 0; match < matches; match++) {
+            desyncs += runMatch(match, delay, jitter, loss);
+        }
+        System.out.println(desyncs == 0 ? "OK - no desyncs" : "FAILED - " + desyncs + " desynced matches");
+        if (desyncs > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Spielt ein Match mit zufälligen Eingaben.
+     * @return 1 bei Desync, sonst 0
+     */
+    private static int runMatch(int seed, int delay, int jitter, double loss) {
+        long[] clock = {0};
+        LoopbackTransport[] pair = LoopbackTransport.createPair();
+        String[] types = Archetypes.get().names().toArray(String[]::new);
+        Random random = new Random(seed);
+
+        RollbackSession[] sessions = new RollbackSession[2];
+        for (int slot = 0; slot < 2; slot++) {
+            NetTransport transport = new LaggyTransport(pair[slot], delay, jitter, loss, seed * 2L + slot, () -> clock[0]);
+            sessions[slot] = new RollbackSession(transport, slot, types[random.nextInt(types.length)], "P" + (slot + 1));
+        }
+
+        long[][] checksums = new long[2][MAX_FRAMES];
+        for (long[] row : checksums) {
+            Arrays.fill(row, Long.MIN_VALUE);
+        }
+        int[] input = new int[2];
+        int[] holdFor = new int[2];
+        Random[] controllers = {new Random(seed * 31L), new Random(seed * 31L + 1)};
+
+        int wallFrames = 0;
+        while (wallFrames < MAX_FRAMES) {
+            clock[0] += TICK_NANOS;
+            wallFrames++;
+            for (int slot = 0; slot < 2; slot++) {
+                RollbackSession session = sessions[slot];
+                if (session.getError() != null) {
+                    System.out.println("  error: " + session.getError());
+                    return 1;
+                }
+                if (session.isConnected() && !session.isStarted()) {
+                    session.start(new MatchSimulation(session.getPlayer1Type(), session.getPlayer2Type()));
+                }
+                if (--holdFor[slot] <= 0) {
+                    input[slot] = randomInput(session, controllers[slot]);
+                    holdFor[slot] = 5 + controllers[slot].nextInt(15);
+                }
+                if (session.isStarted() && session.getSimulation().isGameOver()) {
+                    // Like the arena: after the K.O. only keep the connection alive until it is confirmed
+                    session.idle();
+                } else {
+                    session.advance(input[slot]);
+                }
+                int confirmed = session.getConfirmedFrame();
+                if (confirmed >= 0 && confirmed < MAX_FRAMES) {
+                    checksums[slot][confirmed] = session.getConfirmedChecksum();
+                }
+            }
+            if (finished(sessions[0]) && finished(sessions[1])) {
+                break;
+            }
+        }
+
+        int compared = 0;
+        for (int f = 0; f < MAX_FRAMES; f++) {
+            if (checksums[0][f] != Long.MIN_VALUE && checksums[1][f] != Long.MIN_VALUE) {
+                compared++;
+                if (checksums[0][f] != checksums[1][f]) {
+                    System.out.printf("  match %d: DESYNC at frame %d%n", seed, f);
+                    return 1;
+                }
+            }
+        }
+        RollbackSession a = sessions[0];
+        System.out.printf("  match %d: %s vs %s, %d frames, %d checks, rollbacks %d/%d (max depth %d), stalls %d/%d%n",
+            seed, a.getPlayer1Type(), a.getPlayer2Type(), a.getFrame(), compared,
+            a.getRollbacks(), sessions[1].getRollbacks(),
+            Math.max(a.getMaxRollbackDepth(), sessions[1].getMaxRollbackDepth()),
+            a.getStalls(), sessions[1].getStalls());
+        return 0;
+    }
+
+    /**
+     * Zufällige Eingabe, die meistens auf den Gegner zuläuft - sonst dauert ein Match ewig.
+     * Nur die eigene Simulation wird gelesen, wie bei einem echten Spieler.
+     */
+    private static int randomInput(RollbackSession session, Random random) {
+        int input = random.nextInt(32);
+        if (session.isStarted() && random.nextInt(3) > 0) {
+            MatchSimulation sim = session.getSimulation();
+            Fighter self = session.getLocalSlot() == 0 ? sim.getPlayer1() : sim.getPlayer2();
+            Fighter other = session.getLocalSlot() == 0 ? sim.getPlayer2() : sim.getPlayer1();
+            input &= ~(MatchSimulation.INPUT_LEFT | MatchSimulation.INPUT_RIGHT);
+            input |= other.getX() < self.getX() ? MatchSimulation.INPUT_LEFT : MatchSimulation.INPUT_RIGHT;
+        }
+        return input;
+    }
+
+    private static boolean finished(RollbackSession session) {
+        return session.isStarted() && session.isConfirmed() && session.getSimulation().isGameOver();
+    }
+
+    private static int intArg(String[] args, String name, int fallback) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return Integer.parseInt(arg.substring(prefix.length()));
+            }
+        }
+        return fallback;
+    }
+}
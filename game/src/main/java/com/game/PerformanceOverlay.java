@@ -0,0 +1,183 @@
+package com.game;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import javafx.scene.control.Label;
+
+/**
+ * Performance-Anzeige für die Arena (F3).
+ * Zeigt Tickdauer, Renderdauer, Pulse-Abstände, Allokationen pro Frame,
+ * GC-Pausen und die letzte Speicherdauer von PlayerData.
+ * Gemessen wird immer, der Text wird nur ein paar Mal pro Sekunde neu gebaut.
+ */
+public final class PerformanceOverlay {
+    /** Wie oft der Text aktualisiert wird */
+    private static final long REFRESH_NANOS = 500_000_000L;
+    /** Nach dieser Zeit fangen die Histogramme von vorne an */
+    private static final long WINDOW_NANOS = 5_000_000_000L;
+
+    private final Label label = new Label();
+
+    /** Messwerte im aktuellen Fenster */
+    private final FrameStats pulseIntervals = new FrameStats();
+    private final FrameStats tickDurations = new FrameStats();
+    private final FrameStats renderDurations = new FrameStats();
+    private final FrameStats frameAllocations = new FrameStats();
+    private final FrameStats inputLatency = new FrameStats();
+
+    /** Allokationen des FX-Threads, falls die JVM das kann */
+    private final com.sun.management.ThreadMXBean threadBean;
+    private final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+
+    /** Welcher Renderer gerade zeichnet */
+    private String renderer = "";
+
+    private long lastPulse = 0;
+    private long lastAllocated = -1;
+    private long lastRefresh = 0;
+    private long windowStart = 0;
+    private long gcCountAtWindowStart;
+    private long gcMillisAtWindowStart;
+
+    public PerformanceOverlay() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sunBean && sunBean.isThreadAllocatedMemorySupported()) {
+            sunBean.setThreadAllocatedMemoryEnabled(true);
+            threadBean = sunBean;
+        } else {
+            threadBean = null;
+        }
+
+        label.setStyle("-fx-font-size: 12; -fx-font-family: monospace; "
+            + "-fx-background-color: rgba(0, 0, 0, 0.6); -fx-text-fill: white; -fx-padding: 4;");
+        label.setLayoutX(10);
+        label.setLayoutY(90);
+        label.setMouseTransparent(true);
+        label.setVisible(false);
+    }
+
+    /**
+     * Zu Beginn jedes AnimationTimer-Pulses aufrufen.
+     */
+    public void beginPulse(long now) {
+        if (lastPulse != 0) {
+            pulseIntervals.record(now - lastPulse);
+        }
+        lastPulse = now;
+
+        if (threadBean != null) {
+            long allocated = threadBean.getCurrentThreadAllocatedBytes();
+            if (lastAllocated >= 0) {
+                frameAllocations.record(allocated - lastAllocated);
+            }
+            lastAllocated = allocated;
+        }
+    }
+
+    /** Dauer eines Simulationsticks */
+    public void recordTick(long nanos) {
+        tickDurations.record(nanos);
+    }
+
+    /** Dauer des Renderns (Zustand auf die Nodes übertragen) */
+    public void recordRender(long nanos) {
+        renderDurations.record(nanos);
+    }
+
+    /**
+     * Nach einem Wechsel des Renderers - die Messwerte fangen dann von vorne an,
+     * damit sich die beiden nicht vermischen.
+     */
+    public void setRenderer(String name) {
+        renderer = name;
+        windowStart = 0;
+    }
+
+    /**
+     * Am Ende jedes Pulses aufrufen - baut bei Bedarf den Text neu.
+     */
+    public void endPulse(long now) {
+        if (windowStart == 0 || now - windowStart >= WINDOW_NANOS) {
+            startWindow(now);
+        }
+        if (label.isVisible() && now - lastRefresh >= REFRESH_NANOS) {
+            lastRefresh = now;
+            refreshText();
+        }
+    }
+
+    private void startWindow(long now) {
+        windowStart = now;
+        pulseIntervals.reset();
+        tickDurations.reset();
+        renderDurations.reset();
+        frameAllocations.reset();
+        inputLatency.reset();
+        gcCountAtWindowStart = gcCount();
+        gcMillisAtWindowStart = gcMillis();
+    }
+
+    private void refreshText() {
+        String allocations = threadBean == null ? "n/a"
+            : String.format("%d B avg / %d B max", frameAllocations.getMean(), frameAllocations.getMax());
+        label.setText(String.format("""
+            Pulse  p50 %5.2f  p99 %5.2f  max %5.2f ms
+            Tick   avg %5.3f  max %5.3f ms (%d)
+            Render avg %5.3f  max %5.3f ms (%s)
+            Input  p50 %5.2f  p99 %5.2f  max %5.2f ms
+            Alloc/frame %s
+            GC     %d pauses, %d ms (last %ds)
+            Save   %.2f ms""",
+            millis(pulseIntervals.percentile(0.5)), millis(pulseIntervals.percentile(0.99)), millis(pulseIntervals.getMax()),
+            millis(tickDurations.getMean()), millis(tickDurations.getMax()), tickDurations.getCount(),
+            millis(renderDurations.getMean()), millis(renderDurations.getMax()), renderer,
+            millis(inputLatency.percentile(0.5)), millis(inputLatency.percentile(0.99)), millis(inputLatency.getMax()),
+            allocations,
+            gcCount() - gcCountAtWindowStart, gcMillis() - gcMillisAtWindowStart, WINDOW_NANOS / 1_000_000_000L,
+            millis(PlayerData.getLastSaveNanos())));
+    }
+
+    private long gcCount() {
+        long sum = 0;
+        for (int i = 0; i < gcBeans.size(); i++) {
+            sum += Math.max(0, gcBeans.get(i).getCollectionCount());
+        }
+        return sum;
+    }
+
+    private long gcMillis() {
+        long sum = 0;
+        for (int i = 0; i < gcBeans.size(); i++) {
+            sum += Math.max(0, gcBeans.get(i).getCollectionTime());
+        }
+        return sum;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /** Latenz von Tastendruck bis Tick - wird vom InputBuffer befüllt */
+    public FrameStats getInputLatency() {
+        return inputLatency;
+    }
+
+    /** Blendet die Anzeige ein oder aus */
+    public void toggle() {
+        label.setVisible(!label.isVisible());
+        lastRefresh = 0;
+    }
+
+    /**
+     * Nach einer Pause nicht den ganzen Pausenabstand als Frame zählen.
+     */
+    public void resetPulse() {
+        lastPulse = 0;
+        lastAllocated = -1;
+    }
+
+    public Label getNode() {
+        return label;
+    }
+}
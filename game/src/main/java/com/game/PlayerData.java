@@ -1,103 +1,411 @@
 package com.game;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import java.io.*;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Verwaltet die Spielerdatenbank.
  * Speichert Siege und lädt sie beim Spielstart.
+ * Gespeichert wird im Hintergrund: mehrere Änderungen kurz hintereinander
+ * werden zu einem Schreibvorgang zusammengefasst, der UI-Thread wartet nie auf die Platte.
+ * Jede Änderung wird nur ans Log angehängt, siehe {@link PlayerEventLog}.
+ * Die einzelnen Matches landen zusätzlich in der {@link MatchHistory}.
  */
 public final class PlayerData {
-    /** Thread-sichere Map für die Spielersiege */
-    private static final Map<String, Integer> playerWins = new ConcurrentHashMap<>();
+    /**
+     * Ein eigener Zähler pro Spieler, gestreut über mehrere Zellen (LongAdder).
+     * Siege zählen geht damit ohne Lock und ohne verlorene Updates, und auch ein Favorit,
+     * der in vielen Arenen gleichzeitig gewinnt, wird nicht zum Flaschenhals.
+     */
+    private static final Map<String, LongAdder> playerWins = new ConcurrentHashMap<>();
+    /**
+     * Sortierter Index für Top-Listen und Platzierungen.
+     * Wird nicht bei jedem Sieg angefasst (das wäre ein globales Lock), sondern gesammelt
+     * nachgeführt - vom Speicher-Thread und vor jeder Abfrage, siehe {@link #refreshLeaderboard()}.
+     */
+    private static final Leaderboard leaderboard = new Leaderboard();
+    /** Spieler, deren Eintrag in der Bestenliste noch hinterherhinkt */
+    private static final Set<String> staleRanks = ConcurrentHashMap.newKeySet();
     
-    /** Pfad zur JSON Speicherdatei im Nutzerverzeichnis */
-    private static final Path SAVE_PATH = Paths.get(System.getProperty("user.home"), "GameData", "players.json");
+    /** Speicherordner im Nutzerverzeichnis */
+    private static final Path SAVE_DIR = Paths.get(System.getProperty("user.home"), "GameData");
+
+    /** So lange wird nach einer Änderung auf weitere gewartet, bevor gespeichert wird */
+    private static final long SAVE_DELAY_MILLIS = 500;
+    /** Nach so vielen Ereignissen im Log wird ein neuer Snapshot geschrieben */
+    private static final int COMPACT_AFTER_EVENTS = 10_000;
+
+    /** Log und Snapshot auf der Platte */
+    private static final PlayerEventLog log = new PlayerEventLog(SAVE_DIR);
+    private static boolean logOpen = false;
+    /** Änderungen, die noch nicht im Log stehen */
+    private static final Queue<PlayerEventLog.Event> unsaved = new ConcurrentLinkedQueue<>();
+    /**
+     * Der Stand, der schon auf der Platte ist - daraus wird der Snapshot geschrieben.
+     * So passen Snapshot und Ereignisnummer immer genau zusammen. Nur unter saveLock benutzen.
+     */
+    private static final Map<String, Integer> persisted = new HashMap<>();
+
+    /** Alle bisherigen Matches - wird nur vom Speicher-Thread beschrieben */
+    private static final MatchHistory history = new MatchHistory(SAVE_DIR);
+    /** Elo-Wertung - wird nach dem Laden aus der Historie berechnet und danach pro Match nachgeführt */
+    private static final Ratings ratings = new Ratings();
+    /**
+     * Die erste Berechnung nach dem Laden. Läuft auf dem Speicher-Thread, bei Millionen Matches
+     * dauert das - bis dahin ist die Wertung leer, siehe {@link #isRatingsReady()}.
+     */
+    private static volatile Future<?> initialRatings = CompletableFuture.completedFuture(null);
+
+    /** Ein einziger Hintergrund-Thread, der die Speicherungen erledigt */
+    private static final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "player-data-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** Ob schon eine Speicherung geplant ist - weitere Änderungen hängen sich einfach dran */
+    private static final AtomicBoolean saveScheduled = new AtomicBoolean(false);
+    /** Nur einer darf gleichzeitig schreiben (Hintergrund-Thread oder saveData beim Beenden) */
+    private static final Object saveLock = new Object();
+    private static volatile boolean loaded = false;
+
+    /** Wie lange das letzte Speichern gedauert hat - für die Performance-Anzeige */
+    private static volatile long lastSaveNanos = 0;
 
     /** Erstellt den Speicherordner falls nötig */
     static {
         try {
-            Files.createDirectories(SAVE_PATH.getParent());
+            Files.createDirectories(SAVE_DIR);
         } catch (IOException e) {
             System.err.println("Fehler beim Erstellen des Speicherordners: " + e.getMessage());
         }
     }
 
     /**
-     * Lädt die Spielerdaten aus der JSON-Datei.
-     * Wird beim Start und nach der Charakterauswahl aufgerufen.
+     * Lädt Snapshot und Log (oder importiert die alte players.json).
+     * Wird beim Start und nach der Charakterauswahl aufgerufen - gelesen wird aber nur beim ersten Mal,
+     * danach ist der Stand im Speicher aktueller als die Dateien.
+     * Die Wertung wird danach im Hintergrund berechnet, der Aufrufer (meist der UI-Thread) wartet nicht darauf.
+     * Ist schon geladen, kehrt es sofort zurück - ohne saveLock, den der Speicher-Thread
+     * beim Schreiben auf die Platte hält.
      */
     public static void loadData() {
-        if (Files.exists(SAVE_PATH)) {
-            try (BufferedReader reader = Files.newBufferedReader(SAVE_PATH)) {
-                Map<String, Integer> loaded = new Gson().fromJson(reader, 
-                    new TypeToken<Map<String, Integer>>(){}.getType());
-                if (loaded != null) {
-                    playerWins.putAll(loaded);
-                }
-            } catch (IOException e) {
+        if (loaded) {
+            return;
+        }
+        synchronized (saveLock) {
+            if (loaded) {
+                return;
+            }
+            try {
+                log.open(persisted);
+                logOpen = true;
+            } catch (IOException | RuntimeException e) {
                 System.err.println("Error loading player data: " + e.getMessage());
             }
+            boolean historyOpen = false;
+            try {
+                history.open();
+                historyOpen = true;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error loading match history: " + e.getMessage());
+            }
+            persisted.forEach((name, wins) -> {
+                LongAdder counter = new LongAdder();
+                counter.add(wins);
+                playerWins.put(name, counter);
+            });
+            leaderboard.rebuild(persisted);
+            if (historyOpen) {
+                initialRatings = submitRecompute();
+            }
+            // Last - the check without the lock must only see fully loaded data
+            loaded = true;
         }
     }
 
     /**
-     * Speichert den aktuellen Spielstand.
-     * Wird nach jedem Sieg und beim Beenden aufgerufen.
+     * Lädt beim ersten Aufruf, danach nur noch ein Blick auf ein Flag - für Menüs, die bei jedem Besuch fragen.
+     */
+    public static void ensureLoaded() {
+        if (!loaded) {
+            loadData();
+        }
+    }
+
+    /**
+     * Schreibt alles sofort auf die Platte und fasst das Log zu einem Snapshot zusammen.
+     * Nur fürs Beenden gedacht - im Spiel wird über {@link #scheduleSave()} im Hintergrund gespeichert.
      */
     public static void saveData() {
-        try (BufferedWriter writer = Files.newBufferedWriter(SAVE_PATH)) {
-            new Gson().toJson(playerWins, writer);
+        synchronized (saveLock) {
+            long start = System.nanoTime();
+            try {
+                appendUnsaved();
+                if (logOpen) {
+                    log.compact(persisted);
+                }
+            } catch (IOException e) {
+                System.err.println("Error saving player data: " + e.getMessage());
+            }
+            lastSaveNanos = System.nanoTime() - start;
+        }
+        // Matches still queued on the writer go in first
+        try {
+            writer.submit(history::flush).get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            System.err.println("Error saving match history: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Hängt die gesammelten Änderungen ans Log - O(Änderungen), nicht O(Spieler).
+     * Nur ab und zu wird ein neuer Snapshot fällig.
+     */
+    private static void flush() {
+        refreshLeaderboard();
+        synchronized (saveLock) {
+            long start = System.nanoTime();
+            try {
+                appendUnsaved();
+                if (logOpen && log.getEventsSinceSnapshot() >= COMPACT_AFTER_EVENTS) {
+                    log.compact(persisted);
+                }
+            } catch (IOException e) {
+                System.err.println("Error saving player data: " + e.getMessage());
+            }
+            lastSaveNanos = System.nanoTime() - start;
+        }
+    }
+
+    private static void appendUnsaved() throws IOException {
+        List<PlayerEventLog.Event> events = new ArrayList<>();
+        PlayerEventLog.Event event;
+        while ((event = unsaved.poll()) != null) {
+            events.add(event);
+        }
+        if (events.isEmpty() || !logOpen) {
+            return;
+        }
+        try {
+            log.append(events);
         } catch (IOException e) {
-            System.err.println("Error saving player data: " + e.getMessage());
+            // Keep them for the next attempt
+            unsaved.addAll(events);
+            throw e;
+        }
+        for (PlayerEventLog.Event saved : events) {
+            PlayerEventLog.apply(saved, persisted);
+        }
+    }
+
+    /**
+     * Plant eine Speicherung im Hintergrund.
+     * Alles, was bis dahin noch geändert wird, landet in derselben Speicherung.
+     */
+    private static void scheduleSave() {
+        // Plain read first - while a save is pending, wins don't all fight over the same CAS
+        if (!saveScheduled.get() && saveScheduled.compareAndSet(false, true)) {
+            writer.schedule(() -> {
+                // Reset first - changes from now on need another save
+                saveScheduled.set(false);
+                flush();
+            }, SAVE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Ein in sich stimmiger Stand aller Spieler - genau der nach den bisher gespeicherten Ereignissen.
+     * Die Live-Zähler einzeln abzulesen ergibt das nicht, weil währenddessen weitergezählt wird.
+     */
+    public static Map<String, Integer> getSnapshot() {
+        ensureLoaded();
+        synchronized (saveLock) {
+            try {
+                appendUnsaved();
+            } catch (IOException e) {
+                System.err.println("Error saving player data: " + e.getMessage());
+            }
+            return Map.copyOf(persisted);
         }
     }
 
+    /**
+     * Dauer des letzten Speichervorgangs in Nanosekunden.
+     */
+    public static long getLastSaveNanos() {
+        return lastSaveNanos;
+    }
+
     /**
      * Fügt einen neuen Spieler hinzu oder ignoriert existierende.
      * @param playerName Name des neuen Spielers
      */
     public static void addPlayer(String playerName) {
         if (playerName != null && !playerName.trim().isEmpty()) {
-            playerWins.putIfAbsent(playerName, 0);
-            saveData();
+            ensureLoaded();
+            if (playerWins.putIfAbsent(playerName, new LongAdder()) == null) {
+                leaderboard.update(playerName, 0);
+                unsaved.add(new PlayerEventLog.Event(PlayerEventLog.PLAYER_ADDED, playerName));
+                scheduleSave();
+            }
         }
     }
 
     /**
      * Erhöht den Siegeszähler eines Spielers.
+     * Nur Zähler und Log-Ereignis - die Bestenliste zieht später nach.
      * @param playerName Name des Siegers
      */
     public static void addWin(String playerName) {
         if (playerName != null && !playerName.trim().isEmpty()) {
-            playerWins.put(playerName, playerWins.getOrDefault(playerName, 0) + 1);
-            saveData();
+            ensureLoaded();
+            LongAdder counter = playerWins.get(playerName);
+            if (counter == null) {
+                counter = playerWins.computeIfAbsent(playerName, name -> new LongAdder());
+            }
+            counter.increment();
+            // A hot player is almost always marked already, then this is only a read
+            if (!staleRanks.contains(playerName)) {
+                staleRanks.add(playerName);
+            }
+            unsaved.add(new PlayerEventLog.Event(PlayerEventLog.WIN, playerName));
+            scheduleSave();
         }
     }
 
+    /**
+     * Trägt die Siege aller markierten Spieler in die Bestenliste ein.
+     * Die Markierung wird vor dem Lesen des Zählers entfernt - ein Sieg danach markiert neu.
+     * Die Zähler wachsen nur, deshalb kann ein paralleles Nachführen nichts zurückdrehen.
+     */
+    private static void refreshLeaderboard() {
+        for (Iterator<String> names = staleRanks.iterator(); names.hasNext(); ) {
+            String name = names.next();
+            names.remove();
+            leaderboard.update(name, (int) playerWins.get(name).sum());
+        }
+    }
+
+    /**
+     * Speichert ein beendetes Match in der Historie und passt die Wertung an.
+     * Beides passiert im Hintergrund, der Aufrufer wartet nicht.
+     */
+    public static void recordMatch(MatchHistory.Match match) {
+        ensureLoaded();
+        writer.execute(() -> {
+            try {
+                history.append(match);
+            } catch (IOException e) {
+                System.err.println("Error saving match history: " + e.getMessage());
+            }
+            if (match.rated()) {
+                ratings.update(match.player1(), match.player2(), match.winner());
+            }
+        });
+    }
+
+    /**
+     * Berechnet alle Wertungen aus der Historie neu - z.B. nach einer Änderung an der Formel.
+     * Läuft auf dem Speicher-Thread, damit kein neues Match dazwischenkommt.
+     */
+    public static Future<?> recomputeRatings() {
+        ensureLoaded();
+        return submitRecompute();
+    }
+
+    private static Future<?> submitRecompute() {
+        return writer.submit(() -> {
+            try {
+                ratings.recompute(history);
+            } catch (RuntimeException e) {
+                System.err.println("Error computing ratings: " + e.getMessage());
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Ob die Wertung nach dem Laden schon berechnet ist - vorher kennt sie noch niemanden.
+     */
+    public static boolean isRatingsReady() {
+        ensureLoaded();
+        return initialRatings.isDone();
+    }
+
+    /**
+     * Elo-Wertung eines Spielers (1500 wenn er noch kein gewertetes Match hatte).
+     */
+    public static int getRating(String playerName) {
+        ensureLoaded();
+        return ratings.get(playerName);
+    }
+
+    /**
+     * Die am besten bewerteten Spieler, mit gerundeter Wertung.
+     */
+    public static List<Map.Entry<String, Integer>> getTopRated(int count) {
+        ensureLoaded();
+        return ratings.top(count);
+    }
+
+    /**
+     * Gegner mit ähnlicher Wertung - für ausgeglichene Matches.
+     * Leer, solange die Wertung nach dem Laden noch berechnet wird.
+     */
+    public static List<Map.Entry<String, Integer>> suggestOpponents(String playerName, int count) {
+        ensureLoaded();
+        return ratings.closest(playerName, count);
+    }
+
+    /**
+     * Die Match-Historie für Abfragen wie Charakter-Duelle oder direkte Vergleiche.
+     */
+    public static MatchHistory getHistory() {
+        ensureLoaded();
+        return history;
+    }
+
     /**
      * Gibt die Anzahl der Siege eines Spielers zurück.
      * @param playerName Name des Spielers
      * @return Anzahl der Siege, 0 falls Spieler unbekannt
      */
     public static int getWins(String playerName) {
-        return playerWins.getOrDefault(playerName, 0);
+        ensureLoaded();
+        LongAdder counter = playerWins.get(playerName);
+        return counter != null ? (int) counter.sum() : 0;
     }
 
     /**
      * Erstellt eine sortierte Liste der besten Spieler.
+     * Kommt aus dem Index - kostet O(count) plus die Spieler, die seit der letzten Abfrage gewonnen haben.
      * @param count Anzahl der gewünschten Top-Spieler
      * @return Liste der Spieler, sortiert nach Siegen
      */
     public static java.util.List<Map.Entry<String, Integer>> getTopPlayers(int count) {
-        return playerWins.entrySet().stream()
-            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-            .limit(count)
-            .toList();
+        ensureLoaded();
+        refreshLeaderboard();
+        return leaderboard.top(count);
+    }
+
+    /**
+     * Platz eines Spielers in der Bestenliste (gleich viele Siege = gleicher Platz).
+     * @return 0 falls Spieler unbekannt
+     */
+    public static int getRank(String playerName) {
+        ensureLoaded();
+        refreshLeaderboard();
+        return leaderboard.rank(playerName);
     }
 
     /**
@@ -105,6 +413,7 @@ public final class PlayerData {
      * @return Set mit allen registrierten Spielern
      */
     public static Set<String> getAllPlayerNames() {
+        ensureLoaded();
         return new TreeSet<>(playerWins.keySet());
     }
 }
\ No newline at end of file
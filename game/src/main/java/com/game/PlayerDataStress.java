@@ -0,0 +1,171 @@
+package com.game;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Belastungstest für das Siege-Zählen.
+ * Viele Threads tragen gleichzeitig Siege ein - ein paar Spieler bekommen fast alle
+ * (so wie ein Favorit in vielen Arenen gleichzeitig), der Rest verteilt sich.
+ * Die Runde läuft mit 1, 2, 4 ... bis --threads Threads, jeder Thread trägt gleich viele Siege ein.
+ * Pro Runde wird der Durchsatz ausgegeben - skaliert das Zählen, wächst er mit den Threads
+ * (solange es genug Kerne gibt), statt an einem Lock hängen zu bleiben.
+ * Danach muss jeder Zähler, die Bestenliste und der gespeicherte Stand exakt
+ * die erwartete Zahl haben. Ein einziger verlorener Sieg = Fehlschlag.
+ *
+ * Läuft in einem eigenen Temp-Ordner, die echten Spielerdaten bleiben unberührt.
+ * Aufruf: java -cp game.jar com.game.PlayerDataStress --threads=16 --wins=200000 --players=1000
+ */
+public final class PlayerDataStress {
+    /** So viele Spieler bekommen den Großteil der Siege */
+    private static final int HOT_PLAYERS = 4;
+
+    private PlayerDataStress() {}
+
+    public static void main(String[] args) throws Exception {
+        int threads = intArg(args, "threads", 16);
+        int winsPerThread = intArg(args, "wins", 200_000);
+        int players = Math.max(HOT_PLAYERS, intArg(args, "players", 1000));
+
+        // Must happen before PlayerData is touched, it resolves its directory once
+        Path home = Files.createTempDirectory("player-stress");
+        System.setProperty("user.home", home.toString());
+
+        String[] names = new String[players];
+        for (int i = 0; i < players; i++) {
+            names[i] = "Player" + i;
+        }
+        long[] expected = new long[players];
+        long total = 0;
+        AtomicLong snapshots = new AtomicLong();
+
+        System.out.printf("%d wins per thread over %d players (%d hot), %d cores%n",
+            winsPerThread, players, HOT_PLAYERS, Runtime.getRuntime().availableProcessors());
+        System.out.println("threads      wins  seconds  M wins/s  speedup");
+        // Warm-up round, only so the first measured row isn't the JIT compiling
+        run(threads, 0, winsPerThread, names, expected, snapshots);
+        total += (long) threads * winsPerThread;
+        double baseline = 0;
+        int round = 1;
+        for (int count = 1; ; count = Math.min(count * 2, threads)) {
+            long wins = (long) count * winsPerThread;
+            double seconds = run(count, round++, winsPerThread, names, expected, snapshots);
+            double perSecond = wins / seconds;
+            if (baseline == 0) {
+                baseline = perSecond;
+            }
+            System.out.printf(Locale.ROOT, "%7d %9d %8.2f %9.2f %8.2f%n",
+                count, wins, seconds, perSecond / 1_000_000, perSecond / baseline);
+            total += wins;
+            if (count >= threads) {
+                break;
+            }
+        }
+        System.out.printf("%d snapshots taken while counting%n", snapshots.get());
+
+        PlayerData.saveData();
+        Map<String, Integer> snapshot = PlayerData.getSnapshot();
+        int errors = 0;
+        for (int p = 0; p < players; p++) {
+            if (expected[p] == 0) {
+                continue;
+            }
+            errors += check("counter", names[p], expected[p], PlayerData.getWins(names[p]));
+            errors += check("snapshot", names[p], expected[p], snapshot.getOrDefault(names[p], 0));
+        }
+        List<Map.Entry<String, Integer>> top = PlayerData.getTopPlayers(HOT_PLAYERS);
+        for (Map.Entry<String, Integer> entry : top) {
+            errors += check("leaderboard", entry.getKey(), PlayerData.getWins(entry.getKey()), entry.getValue());
+        }
+        errors += check("snapshot", "total", total, snapshot.values().stream().mapToLong(Integer::longValue).sum());
+
+        deleteQuietly(home);
+        System.out.println(errors == 0 ? "OK - no lost wins" : "FAILED - " + errors + " mismatches");
+        System.exit(errors == 0 ? 0 : 1);
+    }
+
+    /**
+     * Eine Runde: {@code threads} Threads tragen gleichzeitig Siege ein, die Zählung landet in {@code expected}.
+     * @return Dauer in Sekunden
+     */
+    private static double run(int threads, int round, int winsPerThread, String[] names, long[] expected,
+                              AtomicLong snapshots) throws InterruptedException {
+        int players = names.length;
+        long[][] counted = new long[threads][players];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers[t] = new Thread(() -> {
+                Random random = new Random(round * 1000L + id);
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < winsPerThread; i++) {
+                    int player = random.nextInt(10) < 8 ? random.nextInt(HOT_PLAYERS) : random.nextInt(players);
+                    if (random.nextInt(100) == 0) {
+                        PlayerData.addPlayer(names[player]);
+                    }
+                    PlayerData.addWin(names[player]);
+                    counted[id][player]++;
+                    // Readers run alongside the writers, like the stats labels in a running arena
+                    if (id == 0 && i % 20_000 == 0) {
+                        PlayerData.getSnapshot();
+                        snapshots.incrementAndGet();
+                    }
+                }
+            }, "stress-" + t);
+            workers[t].start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+        for (long[] perThread : counted) {
+            for (int p = 0; p < players; p++) {
+                expected[p] += perThread[p];
+            }
+        }
+        return seconds;
+    }
+
+    private static int check(String what, String name, long expected, long actual) {
+        if (expected == actual) {
+            return 0;
+        }
+        System.out.printf("%s %s: expected %d, got %d%n", what, name, expected, actual);
+        return 1;
+    }
+
+    private static void deleteQuietly(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            System.err.println("Could not clean up " + directory + ": " + e.getMessage());
+        }
+    }
+
+    private static int intArg(String[] args, String name, int fallback) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return Integer.parseInt(arg.substring(prefix.length()));
+            }
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,212 @@
+package com.game;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Speichert die Spielerdaten als Ereignis-Log plus gelegentlichem Snapshot.
+ * Ein Sieg kostet damit nur ein paar angehängte Bytes statt die ganze Datei neu zu schreiben.
+ * Beim Start wird der letzte Snapshot geladen und das Log darauf abgespielt.
+ *
+ * Dateien in ~/GameData:
+ * <pre>
+ *   players.snapshot.json   {"sequence": n, "wins": {...}} - Stand nach Ereignis n
+ *   players.log             Typ (byte) | Nummer (long) | Namenslänge (short) | Name (UTF-8)
+ *   players.json            altes Format, wird einmalig importiert wenn es noch keinen Snapshot gibt
+ * </pre>
+ * Jedes Ereignis hat eine fortlaufende Nummer. Stürzt das Spiel zwischen Snapshot und
+ * Leeren des Logs ab, werden die schon enthaltenen Ereignisse beim Laden übersprungen.
+ * Ein halb geschriebenes letztes Ereignis wird abgeschnitten.
+ */
+public final class PlayerEventLog implements Closeable {
+    public static final byte PLAYER_ADDED = 1;
+    public static final byte WIN = 2;
+
+    /** Ein Ereignis: neuer Spieler oder ein Sieg */
+    public record Event(byte type, String name) {}
+
+    /** Der Inhalt des Snapshots */
+    private record Snapshot(long sequence, Map<String, Integer> wins) {}
+
+    private static final int HEADER_BYTES = 1 + 8 + 2;
+    private static final Gson GSON = new Gson();
+
+    private final Path logPath;
+    private final Path snapshotPath;
+    private final Path tempPath;
+    private final Path legacyPath;
+
+    private FileChannel channel;
+    private long position = 0;
+    /** Nummer des letzten geschriebenen Ereignisses */
+    private long sequence = 0;
+    private int eventsSinceSnapshot = 0;
+    private ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+    public PlayerEventLog(Path directory) {
+        this.logPath = directory.resolve("players.log");
+        this.snapshotPath = directory.resolve("players.snapshot.json");
+        this.tempPath = directory.resolve("players.snapshot.json.tmp");
+        this.legacyPath = directory.resolve("players.json");
+    }
+
+    /**
+     * Lädt Snapshot und Log und öffnet das Log zum Anhängen.
+     * @param into hier landet der Stand nach dem letzten vollständigen Ereignis
+     */
+    public void open(Map<String, Integer> into) throws IOException {
+        Snapshot snapshot = readSnapshot();
+        into.putAll(snapshot.wins());
+        sequence = snapshot.sequence();
+
+        channel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        replay(into, snapshot.sequence());
+    }
+
+    private Snapshot readSnapshot() throws IOException {
+        if (Files.exists(snapshotPath)) {
+            try (BufferedReader reader = Files.newBufferedReader(snapshotPath)) {
+                Snapshot snapshot = GSON.fromJson(reader, Snapshot.class);
+                if (snapshot != null && snapshot.wins() != null) {
+                    return snapshot;
+                }
+            }
+        }
+        Map<String, Integer> legacy = new HashMap<>();
+        if (Files.exists(legacyPath)) {
+            try (BufferedReader reader = Files.newBufferedReader(legacyPath)) {
+                Map<String, Integer> saved = GSON.fromJson(reader, new TypeToken<Map<String, Integer>>(){}.getType());
+                if (saved != null) {
+                    legacy.putAll(saved);
+                }
+            }
+        }
+        return new Snapshot(0, legacy);
+    }
+
+    /**
+     * Spielt alle Ereignisse nach dem Snapshot ab und schneidet ein kaputtes Ende ab.
+     */
+    private void replay(Map<String, Integer> into, long snapshotSequence) throws IOException {
+        ByteBuffer log = ByteBuffer.wrap(Files.readAllBytes(logPath));
+
+        int valid = 0;
+        while (log.remaining() >= HEADER_BYTES) {
+            byte type = log.get();
+            long number = log.getLong();
+            int length = log.getShort() & 0xFFFF;
+            if ((type != PLAYER_ADDED && type != WIN) || log.remaining() < length) {
+                break;
+            }
+            byte[] name = new byte[length];
+            log.get(name);
+            valid = log.position();
+            if (number > snapshotSequence) {
+                apply(new Event(type, new String(name, StandardCharsets.UTF_8)), into);
+                eventsSinceSnapshot++;
+            }
+            sequence = Math.max(sequence, number);
+        }
+        if (valid < channel.size()) {
+            System.err.println("Player log ends with an incomplete entry, dropping " + (channel.size() - valid) + " bytes");
+            channel.truncate(valid);
+        }
+        position = valid;
+    }
+
+    /**
+     * Wendet ein Ereignis auf einen Spielstand an.
+     */
+    public static void apply(Event event, Map<String, Integer> wins) {
+        if (event.type() == PLAYER_ADDED) {
+            wins.putIfAbsent(event.name(), 0);
+        } else {
+            wins.merge(event.name(), 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Hängt Ereignisse an das Log an - ein einziger Schreibvorgang und ein sync für alle.
+     */
+    public void append(List<Event> events) throws IOException {
+        buffer.clear();
+        for (Event event : events) {
+            byte[] name = event.name().getBytes(StandardCharsets.UTF_8);
+            ensureCapacity(HEADER_BYTES + name.length);
+            buffer.put(event.type());
+            buffer.putLong(++sequence);
+            buffer.putShort((short) name.length);
+            buffer.put(name);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        channel.force(false);
+        eventsSinceSnapshot += events.size();
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() < bytes) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            bigger.put(buffer);
+            buffer = bigger;
+        }
+    }
+
+    /**
+     * Schreibt einen Snapshot und leert danach das Log.
+     * Der Snapshot wird erst in eine Temp-Datei geschrieben und dann atomar umbenannt.
+     * @param wins der Stand nach allen bisher angehängten Ereignissen
+     */
+    public void compact(Map<String, Integer> wins) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(tempPath.toFile());
+             Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            GSON.toJson(new Snapshot(sequence, wins), writer);
+            writer.flush();
+            out.getFD().sync();
+        }
+        try {
+            Files.move(tempPath, snapshotPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        channel.truncate(0);
+        channel.force(true);
+        position = 0;
+        eventsSinceSnapshot = 0;
+    }
+
+    /**
+     * Wie viele Ereignisse seit dem letzten Snapshot im Log stehen.
+     */
+    public int getEventsSinceSnapshot() {
+        return eventsSinceSnapshot;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
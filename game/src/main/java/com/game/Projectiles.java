@@ -0,0 +1,212 @@
+package com.game;
+
+/**
+ * Alle Projektile eines Matches - die Fernkämpfer schießen wieder richtig.
+ *
+ * Gespeichert wird spaltenweise in festen Arrays (x, y, Geschwindigkeit, ... je ein Array),
+ * die lebenden Projektile liegen immer dicht vorne. Anlegen, Bewegen, Treffen und Entfernen
+ * legen also nie ein Objekt an, auch bei Hunderten Projektilen gleichzeitig.
+ * Ist der Pool voll, wird nicht mehr geschossen - mehr als {@link #CAPACITY} kostet ein Tick nie.
+ *
+ * Gehört zum Spielzustand: {@link MatchSimulation#copyFrom} und {@link MatchSimulation#checksum}
+ * nehmen die Projektile mit, Rollback und Replays bleiben damit deterministisch.
+ */
+public final class Projectiles {
+    /** Mehr Projektile gibt es nicht - jedes weitere wird verworfen */
+    public static final int CAPACITY = 1024;
+    /** Fluggeschwindigkeit in px/s */
+    public static final double SPEED = 600;
+    /** Nur für die Darstellung - getroffen wird über die Trefferzone */
+    public static final double RADIUS = 10;
+    /**
+     * Trefferzone um die Mitte eines Kämpfers. Die Höhe entspricht der alten Regel
+     * "nur auf gleicher Höhe" (weniger als 50px Unterschied) - Springen weicht also weiterhin aus.
+     */
+    public static final double HURT_HALF_WIDTH = 30;
+    public static final double HURT_HALF_HEIGHT = 50;
+    /** Spezialangriff: so viele Projektile fächerförmig, zusammen genau doppelter Schaden wie früher */
+    public static final int BARRAGE = 16;
+    /**
+     * Vertikale Geschwindigkeit der äußersten Projektile im Fächer, px/s.
+     * Bei großer Reichweite wird der Fächer enger, damit auch die äußersten noch in die Trefferzone fliegen.
+     */
+    private static final double BARRAGE_SPREAD = 240;
+
+    private static final double TICK_SECONDS = 1.0 / MatchSimulation.TICKS_PER_SECOND;
+
+    /**
+     * Wer getroffen werden kann - im 1v1 einfach der Gegner, im Free-for-all fragt die
+     * {@link BrawlSimulation} ihr Raster.
+     */
+    interface Targets {
+        /** @return Index des getroffenen Kämpfers, -1 wenn an dieser Stelle keiner ist */
+        int findTarget(int owner, double x, double y);
+
+        Fighter fighter(int slot);
+    }
+
+    private final double[] x = new double[CAPACITY];
+    private final double[] y = new double[CAPACITY];
+    private final double[] previousX = new double[CAPACITY];
+    private final double[] previousY = new double[CAPACITY];
+    private final double[] velocityX = new double[CAPACITY];
+    private final double[] velocityY = new double[CAPACITY];
+    private final int[] damage = new int[CAPACITY];
+    private final int[] ticksLeft = new int[CAPACITY];
+    /** 0 für Spieler 1, 1 für Spieler 2 (im Free-for-all der Index) */
+    private final byte[] owner = new byte[CAPACITY];
+    private int count = 0;
+    /** Wegen vollem Pool verworfen - nur zur Diagnose, nicht Teil des Zustands */
+    private long dropped = 0;
+    /** Außerhalb davon verschwinden Projektile - das Free-for-all hat eine breitere Arena */
+    private double arenaWidth = Fighter.ARENA_WIDTH;
+
+    /**
+     * Schießt für einen Fernkämpfer aus seiner Mitte zur Seite des Gegners -
+     * wie früher zählt nur, ob er in Reichweite ist, nicht wohin man gerade schaut.
+     * Die Flugzeit reicht genau für die Reichweite.
+     * @param barrage Spezialangriff - ein Fächer aus {@link #BARRAGE} schwächeren Projektilen.
+     *                Der doppelte Schaden wird genau aufgeteilt, den Rest bekommen die ersten Projektile.
+     */
+    void fire(int slot, Fighter attacker, Fighter target, boolean barrage) {
+        double dx = target.getCenterX() - attacker.getCenterX();
+        double direction = dx > 0 || (dx == 0 && attacker.isFacingRight()) ? 1 : -1;
+        int lifetime = (int) Math.ceil(attacker.getAttackRange() / (SPEED * TICK_SECONDS));
+        double startX = attacker.getCenterX();
+        double startY = attacker.getCenterY();
+        if (!barrage) {
+            spawn(slot, startX, startY, direction * SPEED, 0, attacker.getDamage(), lifetime);
+            return;
+        }
+        int total = 2 * attacker.getDamage();
+        // At max range the outermost projectiles arrive just inside the hurt zone
+        double maxSpread = Math.min(BARRAGE_SPREAD, HURT_HALF_HEIGHT * SPEED / attacker.getAttackRange());
+        for (int i = 0; i < BARRAGE; i++) {
+            double spread = maxSpread * (2.0 * i / (BARRAGE - 1) - 1);
+            int share = total / BARRAGE + (i < total % BARRAGE ? 1 : 0);
+            spawn(slot, startX, startY, direction * SPEED, spread, share, lifetime);
+        }
+    }
+
+    /**
+     * Legt ein Projektil an.
+     * @return false wenn der Pool voll ist
+     */
+    public boolean spawn(int slot, double startX, double startY, double vx, double vy, int hitDamage, int lifetime) {
+        if (count == CAPACITY) {
+            dropped++;
+            return false;
+        }
+        int i = count++;
+        x[i] = startX;
+        y[i] = startY;
+        previousX[i] = startX;
+        previousY[i] = startY;
+        velocityX[i] = vx;
+        velocityY[i] = vy;
+        damage[i] = hitDamage;
+        ticksLeft[i] = lifetime;
+        owner[i] = (byte) slot;
+        return true;
+    }
+
+    /**
+     * Ob ein Punkt in der Trefferzone eines Kämpfers liegt.
+     */
+    static boolean hits(Fighter fighter, double x, double y) {
+        return Math.abs(x - fighter.getCenterX()) <= HURT_HALF_WIDTH
+            && Math.abs(y - fighter.getCenterY()) < HURT_HALF_HEIGHT;
+    }
+
+    /**
+     * Ein Tick: bewegen, gegen die Kämpfer prüfen, Abgelaufenes entfernen.
+     * Entfernt wird durch Umkopieren des letzten Projektils - die Reihenfolge ist dabei
+     * trotzdem auf jedem Rechner gleich.
+     */
+    void step(Targets targets, long tick, CombatEvents events) {
+        int i = 0;
+        while (i < count) {
+            previousX[i] = x[i];
+            previousY[i] = y[i];
+            x[i] += velocityX[i] * TICK_SECONDS;
+            y[i] += velocityY[i] * TICK_SECONDS;
+            ticksLeft[i]--;
+
+            int hit = targets.findTarget(owner[i], x[i], y[i]);
+            if (hit >= 0) {
+                Fighter target = targets.fighter(hit);
+                int healthBefore = target.getHealth();
+                target.takeDamage(damage[i], tick);
+                events.publish(CombatEvents.Type.DAMAGE, tick, owner[i], hit,
+                               healthBefore - target.getHealth(), target.getHealth(), false);
+                remove(i);
+            } else if (ticksLeft[i] <= 0 || x[i] < -RADIUS || x[i] > arenaWidth + RADIUS) {
+                remove(i);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private void remove(int i) {
+        int last = --count;
+        x[i] = x[last];
+        y[i] = y[last];
+        previousX[i] = previousX[last];
+        previousY[i] = previousY[last];
+        velocityX[i] = velocityX[last];
+        velocityY[i] = velocityY[last];
+        damage[i] = damage[last];
+        ticksLeft[i] = ticksLeft[last];
+        owner[i] = owner[last];
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    void setArenaWidth(double width) {
+        arenaWidth = width;
+    }
+
+    /**
+     * Übernimmt die Projektile eines anderen Matches - kopiert nur die lebenden.
+     */
+    public void copyFrom(Projectiles other) {
+        int n = other.count;
+        System.arraycopy(other.x, 0, x, 0, n);
+        System.arraycopy(other.y, 0, y, 0, n);
+        System.arraycopy(other.previousX, 0, previousX, 0, n);
+        System.arraycopy(other.previousY, 0, previousY, 0, n);
+        System.arraycopy(other.velocityX, 0, velocityX, 0, n);
+        System.arraycopy(other.velocityY, 0, velocityY, 0, n);
+        System.arraycopy(other.damage, 0, damage, 0, n);
+        System.arraycopy(other.ticksLeft, 0, ticksLeft, 0, n);
+        System.arraycopy(other.owner, 0, owner, 0, n);
+        count = n;
+    }
+
+    public long checksum() {
+        long hash = count;
+        for (int i = 0; i < count; i++) {
+            hash = hash * 31 + Double.doubleToLongBits(x[i]);
+            hash = hash * 31 + Double.doubleToLongBits(y[i]);
+            hash = hash * 31 + Double.doubleToLongBits(velocityX[i]);
+            hash = hash * 31 + Double.doubleToLongBits(velocityY[i]);
+            hash = hash * 31 + damage[i];
+            hash = hash * 31 + ticksLeft[i];
+            hash = hash * 31 + owner[i];
+        }
+        return hash;
+    }
+
+    /** Anzahl der fliegenden Projektile - gültige Indizes sind 0 bis count-1 */
+    public int getCount() { return count; }
+    public int getOwner(int i) { return owner[i]; }
+    public double getX(int i) { return x[i]; }
+    public double getY(int i) { return y[i]; }
+    public double getRenderX(int i, double alpha) { return previousX[i] + (x[i] - previousX[i]) * alpha; }
+    public double getRenderY(int i, double alpha) { return previousY[i] + (y[i] - previousY[i]) * alpha; }
+    /** Wie oft der Pool voll war */
+    public long getDropped() { return dropped; }
+}
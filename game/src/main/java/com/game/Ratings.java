@@ -0,0 +1,216 @@
+package com.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Elo-Wertung der Spieler.
+ * Anders als die reine Siegzahl zählt hier, gegen wen man gewinnt: wer nur viel spielt,
+ * aber oft verliert, steigt nicht auf. Jeder startet mit 1500.
+ *
+ * Nach jedem Match werden nur die beiden Spieler angepasst. Ändert sich die Formel,
+ * lässt sich alles aus der {@link MatchHistory} neu berechnen - siehe {@link #recompute}.
+ */
+public final class Ratings {
+    public static final double INITIAL = 1500;
+    /** Wie stark ein einzelnes Match die Wertung verschiebt */
+    private static final double K = 32;
+    /** Kleinere Wellen lohnen den Aufwand für mehrere Threads nicht */
+    private static final int PARALLEL_WAVE = 4096;
+
+    /** Ein Spieler mit seiner Wertung - sortiert nach Wertung, bei Gleichstand nach Name */
+    private record Rated(double rating, String name) {}
+
+    private static final Comparator<Rated> ORDER = Comparator.comparingDouble(Rated::rating).reversed()
+        .thenComparing(Rated::name);
+
+    private final Map<String, Rated> byName = new HashMap<>();
+    private final TreeSet<Rated> sorted = new TreeSet<>(ORDER);
+
+    /**
+     * Erwartetes Ergebnis von a gegen b, zwischen 0 (chancenlos) und 1 (sicherer Sieg).
+     */
+    public static double expected(double a, double b) {
+        return 1 / (1 + Math.pow(10, (b - a) / 400));
+    }
+
+    /**
+     * Um so viel steigt a (und fällt b) nach einem Match.
+     * @param winner 1 wenn a gewonnen hat, 2 wenn b, 0 bei Unentschieden
+     */
+    public static double delta(double a, double b, int winner) {
+        double score = winner == 1 ? 1 : winner == 2 ? 0 : 0.5;
+        return K * (score - expected(a, b));
+    }
+
+    /**
+     * Trägt ein Match ein - O(1) für die Wertung, dazu O(log n) für die Sortierung.
+     */
+    public synchronized void update(String a, String b, int winner) {
+        if (a.equals(b)) {
+            return;
+        }
+        double ratingA = rating(a);
+        double ratingB = rating(b);
+        double change = delta(ratingA, ratingB, winner);
+        set(a, ratingA + change);
+        set(b, ratingB - change);
+    }
+
+    private double rating(String name) {
+        Rated rated = byName.get(name);
+        return rated != null ? rated.rating() : INITIAL;
+    }
+
+    private void set(String name, double rating) {
+        Rated old = byName.get(name);
+        if (old != null) {
+            sorted.remove(old);
+        }
+        Rated updated = new Rated(rating, name);
+        byName.put(name, updated);
+        sorted.add(updated);
+    }
+
+    /**
+     * Berechnet alle Wertungen aus der Historie neu und ersetzt die bisherigen.
+     *
+     * Elo hängt von der Reihenfolge ab, jedes Match baut auf dem Stand davor auf.
+     * Die Matches werden deshalb in Wellen eingeteilt: jedes Match kommt in die erste Welle
+     * nach dem letzten Match seiner beiden Spieler. Innerhalb einer Welle hat kein Spieler
+     * zwei Matches - die lassen sich also gleichzeitig rechnen, und das Ergebnis ist
+     * genau dasselbe wie der Reihe nach.
+     */
+    public void recompute(MatchHistory history) {
+        MatchHistory.Results results = history.results();
+        int[] player1 = results.player1();
+        int[] player2 = results.player2();
+        byte[] winner = results.winner();
+        int matches = winner.length;
+
+        int[] wave = new int[matches];
+        int[] nextWave = new int[results.names().length];
+        int waves = 0;
+        for (int i = 0; i < matches; i++) {
+            if (winner[i] < 0 || player1[i] == player2[i]) {
+                wave[i] = -1;
+                continue;
+            }
+            int w = Math.max(nextWave[player1[i]], nextWave[player2[i]]);
+            wave[i] = w;
+            nextWave[player1[i]] = w + 1;
+            nextWave[player2[i]] = w + 1;
+            waves = Math.max(waves, w + 1);
+        }
+
+        // Sort the matches by wave (counting sort)
+        int[] start = new int[waves + 1];
+        for (int w : wave) {
+            if (w >= 0) {
+                start[w + 1]++;
+            }
+        }
+        Arrays.parallelPrefix(start, Integer::sum);
+        int[] order = new int[start[waves]];
+        int[] fill = Arrays.copyOf(start, waves);
+        for (int i = 0; i < matches; i++) {
+            if (wave[i] >= 0) {
+                order[fill[wave[i]]++] = i;
+            }
+        }
+
+        double[] ratings = new double[results.names().length];
+        Arrays.fill(ratings, INITIAL);
+        IntConsumer apply = k -> {
+            int match = order[k];
+            int a = player1[match];
+            int b = player2[match];
+            double change = delta(ratings[a], ratings[b], winner[match]);
+            ratings[a] += change;
+            ratings[b] -= change;
+        };
+        for (int w = 0; w < waves; w++) {
+            if (start[w + 1] - start[w] >= PARALLEL_WAVE) {
+                IntStream.range(start[w], start[w + 1]).parallel().forEach(apply);
+            } else {
+                for (int k = start[w]; k < start[w + 1]; k++) {
+                    apply.accept(k);
+                }
+            }
+        }
+
+        synchronized (this) {
+            byName.clear();
+            sorted.clear();
+            for (int id = 0; id < ratings.length; id++) {
+                // Wave counters double as "has played a rated match"
+                if (nextWave[id] > 0) {
+                    set(results.names()[id], ratings[id]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Wertung eines Spielers, gerundet.
+     */
+    public synchronized int get(String name) {
+        return (int) Math.round(rating(name));
+    }
+
+    /**
+     * Die am besten bewerteten Spieler.
+     */
+    public synchronized List<Map.Entry<String, Integer>> top(int count) {
+        List<Map.Entry<String, Integer>> result = new ArrayList<>(Math.min(count, sorted.size()));
+        for (Rated rated : sorted) {
+            if (result.size() == count) {
+                break;
+            }
+            result.add(entry(rated));
+        }
+        return result;
+    }
+
+    /**
+     * Die Spieler mit der ähnlichsten Wertung - gute Gegner für ein ausgeglichenes Match.
+     * Unbewertete Spieler werden mit 1500 eingeordnet.
+     */
+    public synchronized List<Map.Entry<String, Integer>> closest(String name, int count) {
+        Rated self = new Rated(rating(name), name);
+        Iterator<Rated> better = sorted.headSet(self, false).descendingIterator();
+        Iterator<Rated> worse = sorted.tailSet(self, false).iterator();
+        Rated up = better.hasNext() ? better.next() : null;
+        Rated down = worse.hasNext() ? worse.next() : null;
+
+        List<Map.Entry<String, Integer>> result = new ArrayList<>(count);
+        while (result.size() < count && (up != null || down != null)) {
+            boolean takeUp = down == null
+                || (up != null && up.rating() - self.rating() <= self.rating() - down.rating());
+            if (takeUp) {
+                result.add(entry(up));
+                up = better.hasNext() ? better.next() : null;
+            } else {
+                result.add(entry(down));
+                down = worse.hasNext() ? worse.next() : null;
+            }
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return sorted.size();
+    }
+
+    private static Map.Entry<String, Integer> entry(Rated rated) {
+        return Map.entry(rated.name(), (int) Math.round(rated.rating()));
+    }
+}
@@ -0,0 +1,159 @@
+package com.game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Liest eine mit {@link ReplayRecorder} aufgezeichnete Datei Tick für Tick.
+ * Die Eingaben laufen durch dieselbe {@link MatchSimulation} wie im echten Spiel,
+ * das Ergebnis ist also exakt reproduzierbar.
+ */
+public final class ReplayReader implements Closeable {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(8192);
+    private final Path path;
+    private final long dataStart;
+
+    /** Header */
+    private final long startTime;
+    private final String player1Type;
+    private final String player2Type;
+    private final String player1Name;
+    private final String player2Name;
+
+    /** Aktueller Tick */
+    private int player1Input;
+    private int player2Input;
+
+    /** Ergebnis aus der Datei, falls das Match zu Ende aufgezeichnet wurde */
+    private boolean finished = false;
+    private int recordedWinner = 0;
+    private long recordedTicks = -1;
+
+    public ReplayReader(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        buffer.limit(0);
+        try {
+            fill();
+            if (buffer.getInt() != ReplayRecorder.MAGIC) {
+                throw new IOException("Not a replay file: " + path);
+            }
+            short version = buffer.getShort();
+            if (version != ReplayRecorder.VERSION) {
+                throw new IOException("Unsupported replay version " + version + ": " + path);
+            }
+            short tickRate = buffer.getShort();
+            if (tickRate != MatchSimulation.TICKS_PER_SECOND) {
+                throw new IOException("Replay was recorded at " + tickRate + " ticks/s: " + path);
+            }
+            startTime = buffer.getLong();
+            player1Type = getString();
+            player2Type = getString();
+            player1Name = getString();
+            player2Name = getString();
+            dataStart = channel.position() - buffer.remaining();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            if (e instanceof BufferUnderflowException) {
+                throw new IOException("Truncated replay header: " + path);
+            }
+            throw e;
+        }
+    }
+
+    private String getString() {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lädt Daten nach, bis mindestens ein paar Bytes bereitliegen oder die Datei zu Ende ist.
+     */
+    private void fill() throws IOException {
+        buffer.compact();
+        while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+            // keep reading until the buffer is full or EOF
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Liest die Eingaben des nächsten Ticks.
+     * @return false wenn das Replay zu Ende ist
+     */
+    public boolean next() throws IOException {
+        if (finished) {
+            return false;
+        }
+        if (buffer.remaining() < 10) {
+            fill();
+        }
+        if (buffer.remaining() < 2) {
+            // Recording was cut off (crash, window closed) - no result stored
+            finished = true;
+            return false;
+        }
+        int first = buffer.get() & 0xFF;
+        if (first == ReplayRecorder.END_MARKER) {
+            finished = true;
+            if (buffer.remaining() >= 9) {
+                recordedWinner = buffer.get();
+                recordedTicks = buffer.getLong();
+            }
+            return false;
+        }
+        player1Input = first;
+        player2Input = buffer.get() & 0xFF;
+        return true;
+    }
+
+    /**
+     * Springt zurück an den ersten Tick.
+     */
+    public void rewind() throws IOException {
+        channel.position(dataStart);
+        buffer.clear().flip();
+        finished = false;
+        recordedWinner = 0;
+        recordedTicks = -1;
+    }
+
+    /**
+     * Spielt das komplette Replay ohne Darstellung so schnell wie möglich ab.
+     * @return die Simulation im Endzustand
+     */
+    public MatchSimulation playToEnd() throws IOException {
+        MatchSimulation simulation = new MatchSimulation(player1Type, player2Type);
+        while (next()) {
+            simulation.step(player1Input, player2Input);
+        }
+        return simulation;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public Path getPath() { return path; }
+    public long getStartTime() { return startTime; }
+    public String getPlayer1Type() { return player1Type; }
+    public String getPlayer2Type() { return player2Type; }
+    public String getPlayer1Name() { return player1Name; }
+    public String getPlayer2Name() { return player2Name; }
+    public int getPlayer1Input() { return player1Input; }
+    public int getPlayer2Input() { return player2Input; }
+
+    /** @return ob am Dateiende ein Ergebnis stand */
+    public boolean hasRecordedResult() { return recordedTicks >= 0; }
+    public int getRecordedWinner() { return recordedWinner; }
+    public long getRecordedTicks() { return recordedTicks; }
+}
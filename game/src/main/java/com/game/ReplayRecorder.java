@@ -0,0 +1,122 @@
+package com.game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Zeichnet ein Match als kompaktes Eingabe-Log auf.
+ * Aufbau einer .replay Datei:
+ * <pre>
+ *   Header:  "FGRP" | Version (short) | Ticks/s (short) | Startzeit (long)
+ *            | Typ P1 | Typ P2 | Name P1 | Name P2   (Strings: Länge als short + UTF-8)
+ *   Ticks:   Eingabe P1 (byte) | Eingabe P2 (byte)   - 2 Bytes pro Tick
+ *   Ende:    0xFF | Sieger (byte) | Anzahl Ticks (long)
+ * </pre>
+ * Geschrieben wird gepuffert über einen FileChannel, das Match liegt also nie komplett im Speicher.
+ */
+public final class ReplayRecorder implements Closeable {
+    static final int MAGIC = 0x46475250; // "FGRP"
+    static final short VERSION = 2; // 2: ranged attacks fire projectiles
+    static final int END_MARKER = 0xFF;
+
+    /** Hier landen die Aufzeichnungen */
+    public static final Path REPLAY_DIR = Paths.get(System.getProperty("user.home"), "GameData", "replays");
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(8192);
+    private final Path path;
+    private long ticks = 0;
+
+    private ReplayRecorder(Path path, String p1Type, String p2Type, String p1Name, String p2Name) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                       StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort((short) MatchSimulation.TICKS_PER_SECOND);
+        buffer.putLong(System.currentTimeMillis());
+        putString(p1Type);
+        putString(p2Type);
+        putString(p1Name);
+        putString(p2Name);
+    }
+
+    /**
+     * Startet eine neue Aufzeichnung im Replay-Ordner.
+     * @return der Recorder, oder null wenn nicht geschrieben werden kann
+     */
+    public static ReplayRecorder start(String p1Type, String p2Type, String p1Name, String p2Name) {
+        try {
+            Files.createDirectories(REPLAY_DIR);
+            String fileName = String.format("%s_%s-vs-%s.replay",
+                LocalDateTime.now().format(FILE_TIME), p1Type, p2Type);
+            return new ReplayRecorder(REPLAY_DIR.resolve(fileName), p1Type, p2Type, p1Name, p2Name);
+        } catch (IOException e) {
+            System.err.println("Error starting replay recording: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void putString(String value) {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Hängt die Eingaben eines Ticks an.
+     */
+    public void record(int p1Input, int p2Input) throws IOException {
+        if (buffer.remaining() < 2) {
+            flush();
+        }
+        buffer.put((byte) p1Input);
+        buffer.put((byte) p2Input);
+        ticks++;
+    }
+
+    /**
+     * Schreibt das Ergebnis ans Ende und schließt die Datei.
+     * @param winner 1 oder 2, 0 wenn das Match abgebrochen wurde
+     */
+    public void finish(int winner) throws IOException {
+        if (buffer.remaining() < 10) {
+            flush();
+        }
+        buffer.put((byte) END_MARKER);
+        buffer.put((byte) winner);
+        buffer.putLong(ticks);
+        close();
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen()) {
+            flush();
+            channel.close();
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+}
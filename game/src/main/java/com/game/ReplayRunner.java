@@ -0,0 +1,88 @@
+package com.game;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Spielt Replays headless und ohne Tempolimit ab.
+ * Vergleicht dabei den Sieger mit dem aufgezeichneten Ergebnis -
+ * so sieht man sofort, welche Matches eine Balance-Änderung kippen würde.
+ *
+ * Aufruf: java -cp game.jar com.game.ReplayRunner [Datei oder Ordner ...]
+ * Ohne Argumente wird ~/GameData/replays abgespielt.
+ */
+public final class ReplayRunner {
+
+    /** Ergebnis eines einzelnen Replays */
+    private record Result(Path path, String matchup, int recordedWinner, int replayedWinner,
+                          long ticks, String error) {
+        boolean changed() {
+            return error == null && recordedWinner != 0 && recordedWinner != replayedWinner;
+        }
+    }
+
+    private ReplayRunner() {}
+
+    public static void main(String[] args) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (args.length == 0) {
+            collect(ReplayRecorder.REPLAY_DIR, files);
+        }
+        for (String arg : args) {
+            collect(Paths.get(arg), files);
+        }
+        if (files.isEmpty()) {
+            System.err.println("No replays found.");
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<Result> results = files.parallelStream().map(ReplayRunner::play).toList();
+        long elapsed = System.nanoTime() - start;
+
+        long totalTicks = 0;
+        int changed = 0;
+        int failed = 0;
+        for (Result result : results) {
+            if (result.error() != null) {
+                failed++;
+                System.out.printf("ERROR    %s: %s%n", result.path().getFileName(), result.error());
+                continue;
+            }
+            totalTicks += result.ticks();
+            if (result.changed()) {
+                changed++;
+                System.out.printf("CHANGED  %s (%s): recorded winner P%d, now P%d%n",
+                    result.path().getFileName(), result.matchup(), result.recordedWinner(), result.replayedWinner());
+            }
+        }
+        double seconds = elapsed / 1_000_000_000.0;
+        System.out.printf("%d replays, %d ticks in %.2f s (%.0f ticks/s) - %d changed result, %d failed%n",
+            results.size(), totalTicks, seconds, totalTicks / seconds, changed, failed);
+    }
+
+    private static void collect(Path path, List<Path> files) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> stream = Files.list(path)) {
+                stream.filter(p -> p.toString().endsWith(".replay")).sorted().forEach(files::add);
+            }
+        } else if (Files.exists(path)) {
+            files.add(path);
+        }
+    }
+
+    private static Result play(Path path) {
+        try (ReplayReader reader = new ReplayReader(path)) {
+            MatchSimulation simulation = reader.playToEnd();
+            return new Result(path, reader.getPlayer1Type() + " vs " + reader.getPlayer2Type(),
+                reader.getRecordedWinner(), simulation.getWinner(), simulation.getTick(), null);
+        } catch (IOException | RuntimeException e) {
+            return new Result(path, null, 0, 0, 0, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Rollback-Netcode für zwei Rechner.
+ * Die Eingaben des Gegners werden vorhergesagt (einfach die letzte bekannte wiederholt),
+ * jeder Tick wird vorher gesichert. Kommt später eine andere Eingabe an als vorhergesagt,
+ * wird der Zustand von damals wiederhergestellt und bis heute neu gerechnet.
+ * So gibt es keine Eingabeverzögerung, solange die Latenz unter {@link #MAX_ROLLBACK} Ticks bleibt.
+ *
+ * Pakete:
+ * <pre>
+ *   HELLO: 1 | Slot (byte) | kennt dich schon (byte) | Charakter-Prüfsumme (long) | Typ | Name
+ *          (Strings: Länge als short + UTF-8)
+ *   INPUT: 2 | bestätigter Gegner-Tick (int) | erster Tick (int) | Anzahl (byte) | Eingaben (je 1 byte)
+ * </pre>
+ * Jedes INPUT-Paket enthält alle Eingaben, die der Gegner noch nicht bestätigt hat -
+ * verlorene Pakete werden also vom nächsten automatisch ersetzt.
+ *
+ * Die characters.json kann auf jedem Rechner anders sein. Mit unterschiedlichen Werten würden
+ * die beiden Seiten still auseinanderlaufen - darum steht {@link Archetypes#checksum()} im HELLO,
+ * und bei einem Unterschied startet das Match gar nicht erst.
+ */
+public final class RollbackSession {
+    /** Wie viele Ticks maximal vorhergesagt werden, bevor gewartet wird */
+    public static final int MAX_ROLLBACK = 8;
+
+    /** Ringpuffer für Zustände und Eingaben - muss eine Zweierpotenz sein */
+    private static final int RING = 64;
+    private static final int MASK = RING - 1;
+    private static final int MAX_INPUTS_PER_PACKET = 32;
+    private static final int HELLO_INTERVAL_TICKS = 6;
+
+    private static final byte HELLO = 1;
+    private static final byte INPUT = 2;
+
+    private final NetTransport transport;
+    private final int localSlot;
+    private final String localType;
+    private final String localName;
+
+    /** Was wir vom Gegner wissen */
+    private String remoteType;
+    private String remoteName;
+    private boolean peerKnowsUs = false;
+    private int helloCountdown = 0;
+    private String error;
+
+    /** Die Simulation und die gesicherten Zustände vor jedem Tick */
+    private MatchSimulation simulation;
+    private final MatchSimulation[] states = new MatchSimulation[RING];
+
+    /** Eingaben pro Tick */
+    private final int[] localInputs = new int[RING];
+    private final int[] remoteInputs = new int[RING];
+    private final int[] usedRemoteInputs = new int[RING];
+
+    /** Nächster zu simulierender Tick */
+    private int frame = 0;
+    /** Letzter Tick, für den die Eingabe des Gegners sicher bekannt ist */
+    private int confirmedRemoteFrame = -1;
+    /** Letzter unserer Ticks, den der Gegner bestätigt hat */
+    private int peerAckFrame = -1;
+    /** Ab hier muss neu gerechnet werden */
+    private int rollbackFrom = Integer.MAX_VALUE;
+
+    /** Statistik */
+    private long rollbacks = 0;
+    private long resimulatedFrames = 0;
+    private int maxRollbackDepth = 0;
+    private long stalls = 0;
+
+    /** Puffer für ein- und ausgehende Pakete */
+    private final byte[] packetBytes = new byte[NetTransport.MAX_PACKET];
+    private final ByteBuffer packet = ByteBuffer.wrap(packetBytes);
+
+    /**
+     * @param localSlot 0 wenn wir Spieler 1 (links) sind, 1 für Spieler 2
+     */
+    public RollbackSession(NetTransport transport, int localSlot, String localType, String localName) {
+        this.transport = transport;
+        this.localSlot = localSlot;
+        this.localType = localType;
+        this.localName = localName;
+    }
+
+    /**
+     * Beide Seiten haben sich gegenseitig gefunden.
+     */
+    public boolean isConnected() {
+        return remoteType != null && peerKnowsUs;
+    }
+
+    /**
+     * Startet das Match auf der gegebenen Simulation.
+     * Die Charaktere müssen zu {@link #getPlayer1Type()} und {@link #getPlayer2Type()} passen.
+     */
+    public void start(MatchSimulation simulation) {
+        this.simulation = simulation;
+        for (int i = 0; i < RING; i++) {
+            if (states[i] == null) {
+                states[i] = new MatchSimulation(simulation.getPlayer1().getType(), simulation.getPlayer2().getType());
+            }
+        }
+    }
+
+    /**
+     * Ein lokaler Tick.
+     * Liest Pakete, rollt bei falschen Vorhersagen zurück, simuliert den neuen Tick
+     * und schickt die eigenen Eingaben los.
+     * @return false wenn nicht simuliert wurde (noch nicht verbunden oder Gegner zu weit zurück)
+     */
+    public boolean advance(int localInput) {
+        poll();
+        if (simulation == null || !isConnected()) {
+            sendHelloIfDue();
+            return false;
+        }
+        if (rollbackFrom < frame) {
+            rollback();
+        }
+        if (frame - confirmedRemoteFrame > MAX_ROLLBACK) {
+            // Too far ahead of the opponent - wait for them instead of predicting even more
+            stalls++;
+            sendInputs();
+            return false;
+        }
+
+        localInputs[frame & MASK] = localInput;
+        simulateFrame(frame);
+        frame++;
+        sendInputs();
+        return true;
+    }
+
+    /**
+     * Hält die Verbindung am Leben ohne weiterzurechnen - z.B. nach dem K.O.,
+     * damit der Gegner die letzten Eingaben sicher bekommt.
+     */
+    public void idle() {
+        poll();
+        if (rollbackFrom < frame) {
+            rollback();
+        }
+        if (simulation != null && isConnected()) {
+            sendInputs();
+        } else {
+            sendHelloIfDue();
+        }
+    }
+
+    private void simulateFrame(int f) {
+        states[f & MASK].copyFrom(simulation);
+        int remote = remoteInputFor(f);
+        usedRemoteInputs[f & MASK] = remote;
+        int local = localInputs[f & MASK];
+        if (localSlot == 0) {
+            simulation.step(local, remote);
+        } else {
+            simulation.step(remote, local);
+        }
+    }
+
+    /**
+     * Die bestätigte Eingabe des Gegners, oder die Vorhersage.
+     */
+    private int remoteInputFor(int f) {
+        if (f <= confirmedRemoteFrame) {
+            return remoteInputs[f & MASK];
+        }
+        return confirmedRemoteFrame >= 0 ? remoteInputs[confirmedRemoteFrame & MASK] : 0;
+    }
+
+    /**
+     * Stellt den Zustand vor dem ersten falsch vorhergesagten Tick wieder her
+     * und rechnet bis zum aktuellen Tick neu.
+     */
+    private void rollback() {
+        int from = rollbackFrom;
+        rollbackFrom = Integer.MAX_VALUE;
+        simulation.copyFrom(states[from & MASK]);
+        for (int f = from; f < frame; f++) {
+            simulateFrame(f);
+        }
+        int depth = frame - from;
+        rollbacks++;
+        resimulatedFrames += depth;
+        maxRollbackDepth = Math.max(maxRollbackDepth, depth);
+    }
+
+    /**
+     * Verarbeitet alle angekommenen Pakete.
+     */
+    private void poll() {
+        try {
+            int length;
+            while ((length = transport.receive(packetBytes)) > 0) {
+                packet.clear().limit(length);
+                byte type = packet.get();
+                if (type == INPUT && length >= 10) {
+                    handleInputs();
+                } else if (type == HELLO) {
+                    handleHello();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            error = "Receive failed: " + e.getMessage();
+        }
+    }
+
+    private void handleInputs() {
+        int ack = packet.getInt();
+        int start = packet.getInt();
+        int count = packet.get() & 0xFF;
+        peerAckFrame = Math.max(peerAckFrame, ack);
+        peerKnowsUs = true;
+
+        for (int i = 0; i < count && packet.hasRemaining(); i++) {
+            int f = start + i;
+            int value = packet.get() & 0xFF;
+            if (f != confirmedRemoteFrame + 1) {
+                // Already known, or after a gap that a later packet will fill
+                continue;
+            }
+            remoteInputs[f & MASK] = value;
+            confirmedRemoteFrame = f;
+            if (simulation != null && f < frame && usedRemoteInputs[f & MASK] != value) {
+                rollbackFrom = Math.min(rollbackFrom, f);
+            }
+        }
+    }
+
+    private void handleHello() {
+        int slot = packet.get();
+        boolean knowsUs = packet.get() != 0;
+        long characters = packet.getLong();
+        String type = getString();
+        String name = getString();
+        if (slot == localSlot) {
+            error = "Both players picked the same side";
+            return;
+        }
+        if (characters != Archetypes.get().checksum()) {
+            error = "The players have different character stats (characters.json)";
+            return;
+        }
+        if (remoteType == null) {
+            remoteType = type;
+            remoteName = name;
+        }
+        if (knowsUs) {
+            peerKnowsUs = true;
+        } else {
+            sendHello();
+        }
+    }
+
+    private String getString() {
+        byte[] bytes = new byte[packet.getShort()];
+        packet.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void sendHelloIfDue() {
+        if (--helloCountdown <= 0) {
+            helloCountdown = HELLO_INTERVAL_TICKS;
+            sendHello();
+        }
+    }
+
+    private void sendHello() {
+        packet.clear();
+        packet.put(HELLO);
+        packet.put((byte) localSlot);
+        packet.put((byte) (remoteType != null ? 1 : 0));
+        packet.putLong(Archetypes.get().checksum());
+        putString(localType);
+        putString(localName);
+        send();
+    }
+
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        packet.putShort((short) bytes.length);
+        packet.put(bytes);
+    }
+
+    /**
+     * Schickt alle Eingaben, die der Gegner noch nicht bestätigt hat.
+     */
+    private void sendInputs() {
+        int from = Math.max(peerAckFrame + 1, frame - MAX_INPUTS_PER_PACKET);
+        int count = Math.max(0, frame - from);
+        packet.clear();
+        packet.put(INPUT);
+        packet.putInt(confirmedRemoteFrame);
+        packet.putInt(from);
+        packet.put((byte) count);
+        for (int f = from; f < frame; f++) {
+            packet.put((byte) localInputs[f & MASK]);
+        }
+        send();
+    }
+
+    private void send() {
+        try {
+            transport.send(packetBytes, packet.position());
+        } catch (IOException e) {
+            error = "Send failed: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Ob alle bisher simulierten Ticks mit echten Gegner-Eingaben gerechnet wurden.
+     * Erst dann ist z.B. ein K.O. endgültig.
+     */
+    public boolean isConfirmed() {
+        return confirmedRemoteFrame >= lastPlayedFrame() && rollbackFrom >= frame;
+    }
+
+    /**
+     * Letzter Tick, der auf beiden Seiten endgültig feststeht.
+     */
+    public int getConfirmedFrame() {
+        return Math.min(confirmedRemoteFrame, lastPlayedFrame());
+    }
+
+    /**
+     * Der letzte Tick, der wirklich gespielt wurde.
+     * Nach einem K.O. rechnet die Simulation nicht weiter - hat eine Rollback den K.O.
+     * nach vorne verschoben, sind die Ticks danach bedeutungslos und der Gegner schickt sie nie.
+     */
+    private int lastPlayedFrame() {
+        if (simulation != null && simulation.isGameOver()) {
+            return (int) simulation.getTick() - 1;
+        }
+        return frame - 1;
+    }
+
+    /**
+     * Prüfsumme des Zustands nach {@link #getConfirmedFrame()} - muss auf beiden Rechnern gleich sein.
+     */
+    public long getConfirmedChecksum() {
+        int next = getConfirmedFrame() + 1;
+        return next >= frame ? simulation.checksum() : states[next & MASK].checksum();
+    }
+
+    public void close() {
+        try {
+            transport.close();
+        } catch (IOException e) {
+            System.err.println("Error closing connection: " + e.getMessage());
+        }
+    }
+
+    public boolean isStarted() { return simulation != null; }
+    public MatchSimulation getSimulation() { return simulation; }
+    public int getLocalSlot() { return localSlot; }
+    public String getPlayer1Type() { return localSlot == 0 ? localType : remoteType; }
+    public String getPlayer2Type() { return localSlot == 0 ? remoteType : localType; }
+    public String getPlayer1Name() { return localSlot == 0 ? localName : remoteName; }
+    public String getPlayer2Name() { return localSlot == 0 ? remoteName : localName; }
+    public String getError() { return error; }
+    public int getFrame() { return frame; }
+    public long getRollbacks() { return rollbacks; }
+    public long getResimulatedFrames() { return resimulatedFrames; }
+    public int getMaxRollbackDepth() { return maxRollbackDepth; }
+    public long getStalls() { return stalls; }
+}
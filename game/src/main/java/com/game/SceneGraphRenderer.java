@@ -0,0 +1,135 @@
+package com.game;
+
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import java.util.List;
+
+/**
+ * Die ursprüngliche Darstellung: jedes Element ist ein eigener Node
+ * (Boden und Lebensbalken als Rectangle, Texte als Label, Kämpfer als {@link Character}).
+ * JavaFX gleicht davon jeden Pulse alles ab - dafür ist es am einfachsten zu ändern.
+ * Nur die Projektile landen auf einer eigenen Canvas-Ebene, hunderte Nodes wären zu teuer.
+ */
+public final class SceneGraphRenderer implements ArenaRenderer {
+    private final Pane pane = new Pane();
+    private MatchSimulation simulation;
+
+    /** Die Darstellung der beiden Kämpfer */
+    private Character player1;
+    private Character player2;
+
+    /** UI-Elemente zur Anzeige von Gesundheit und Stats */
+    private final Label healthLabel1 = new Label("100/100");
+    private final Label healthLabel2 = new Label("100/100");
+    private final Rectangle healthBar1 = new Rectangle(50, 20, 200, 20);
+    private final Rectangle healthBar2 = new Rectangle(550, 20, 200, 20);
+    private final Label player1StatsLabel = new Label();
+    private final Label player2StatsLabel = new Label();
+
+    /** Projektile über den Kämpfern - wird nur angefasst, wenn welche fliegen oder gerade verschwunden sind */
+    private final Canvas projectileLayer = new Canvas(800, 600);
+    private boolean projectilesShown = false;
+
+    public SceneGraphRenderer() {
+        // Create floor
+        Rectangle floor = new Rectangle(0, 500, 800, 100);
+        floor.setFill(Color.GRAY);
+
+        healthBar1.setFill(Color.GREEN);
+        healthBar2.setFill(Color.GREEN);
+        healthLabel1.setLayoutX(50);
+        healthLabel1.setLayoutY(40);
+        healthLabel2.setLayoutX(550);
+        healthLabel2.setLayoutY(40);
+
+        player1StatsLabel.setLayoutX(50);
+        player1StatsLabel.setLayoutY(60);
+        player2StatsLabel.setLayoutX(550);
+        player2StatsLabel.setLayoutY(60);
+
+        projectileLayer.setMouseTransparent(true);
+        pane.getChildren().addAll(floor, projectileLayer, healthBar1, healthBar2, healthLabel1, healthLabel2,
+                                  player1StatsLabel, player2StatsLabel);
+    }
+
+    @Override
+    public Node getNode() {
+        return pane;
+    }
+
+    @Override
+    public void setMatch(MatchSimulation simulation) {
+        this.simulation = simulation;
+        if (player1 == null) {
+            player1 = new Character(simulation.getPlayer1());
+            player2 = new Character(simulation.getPlayer2());
+            // Fighters go above the floor but below the HUD
+            pane.getChildren().addAll(1, List.of(player1, player2));
+        } else {
+            player1.setFighter(simulation.getPlayer1());
+            player2.setFighter(simulation.getPlayer2());
+        }
+        updateHealthBars();
+    }
+
+    @Override
+    public void setStats(String player1, String player2) {
+        player1StatsLabel.setText(player1);
+        player2StatsLabel.setText(player2);
+    }
+
+    @Override
+    public void render(double alpha) {
+        long tick = simulation.getTick();
+        player1.render(alpha, tick);
+        player2.render(alpha, tick);
+        renderProjectiles(alpha);
+    }
+
+    private void renderProjectiles(double alpha) {
+        Projectiles projectiles = simulation.getProjectiles();
+        if (projectiles.getCount() == 0 && !projectilesShown) {
+            return;
+        }
+        GraphicsContext g = projectileLayer.getGraphicsContext2D();
+        g.clearRect(0, 0, projectileLayer.getWidth(), projectileLayer.getHeight());
+        CanvasRenderer.drawProjectiles(g, projectiles, alpha);
+        projectilesShown = projectiles.getCount() > 0;
+    }
+
+    /**
+     * Lebensanzeigen nur bei Treffern und Resets - sonst bleiben Balken und Texte unangetastet.
+     */
+    @Override
+    public void onCombatEvent(CombatEvents.Event event) {
+        switch (event.type()) {
+            case DAMAGE -> setHealth(event.target(), event.health());
+            case RESYNC -> updateHealthBars();
+            default -> { }
+        }
+    }
+
+    /**
+     * Aktualisiert die HP-Anzeigen.
+     * Passt Balken und Zahlenwerte an den aktuellen Gesundheitszustand an.
+     */
+    private void updateHealthBars() {
+        setHealth(0, simulation.getPlayer1().getHealth());
+        setHealth(1, simulation.getPlayer2().getHealth());
+    }
+
+    private void setHealth(int slot, int health) {
+        (slot == 0 ? healthBar1 : healthBar2).setWidth(Math.max(0, health * 2));
+        (slot == 0 ? healthLabel1 : healthLabel2).setText(health + "/100");
+    }
+
+    @Override
+    public String getName() {
+        return "scene graph";
+    }
+}
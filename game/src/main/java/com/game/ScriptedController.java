@@ -0,0 +1,64 @@
+package com.game;
+
+import java.util.Random;
+
+/**
+ * Ein einfacher Skript-Gegner.
+ * Läuft auf den Gegner zu bis er in Reichweite ist, haut dann drauf und
+ * nimmt den Spezialangriff, sobald er wieder bereit ist. Ein bisschen Zufall
+ * (Zögern, Zurückweichen, Springen) sorgt dafür, dass nicht jedes Match gleich ausgeht.
+ */
+public final class ScriptedController implements Controller {
+    /** Wahrscheinlichkeiten pro Tick */
+    private static final double HESITATE_CHANCE = 0.15;
+    private static final double BACK_OFF_CHANCE = 0.05;
+    private static final double JUMP_CHANCE = 0.01;
+
+    private final Random random;
+
+    public ScriptedController(Random random) {
+        this.random = random;
+    }
+
+    @Override
+    public int nextInput(MatchSimulation match, int slot) {
+        return nextInput(match.getPlayer(slot), match.getPlayer(1 - slot), match.getTick());
+    }
+
+    /**
+     * Im Free-for-all geht es immer auf den nächsten Gegner los.
+     */
+    public int nextInput(BrawlSimulation brawl, int slot) {
+        if (brawl.isKnockedOut(slot)) {
+            return 0;
+        }
+        int enemy = brawl.nearestEnemy(slot, Double.POSITIVE_INFINITY);
+        return enemy < 0 ? 0 : nextInput(brawl.getFighter(slot), brawl.getFighter(enemy), brawl.getTick());
+    }
+
+    private int nextInput(Fighter self, Fighter target, long tick) {
+        double dx = target.getX() - self.getX();
+        double distance = Math.abs(dx);
+        int towards = dx < 0 ? MatchSimulation.INPUT_LEFT : MatchSimulation.INPUT_RIGHT;
+        int away = dx < 0 ? MatchSimulation.INPUT_RIGHT : MatchSimulation.INPUT_LEFT;
+
+        int input = 0;
+        if (random.nextDouble() < HESITATE_CHANCE) {
+            return input;
+        }
+        if (distance > self.getAttackRange()) {
+            input |= towards;
+        } else if (random.nextDouble() < BACK_OFF_CHANCE) {
+            input |= away;
+        }
+        if (!self.isRanged() && random.nextDouble() < JUMP_CHANCE) {
+            input |= MatchSimulation.INPUT_JUMP;
+        }
+        if (distance <= self.getAttackRange() && self.canAttack()) {
+            input |= self.isStrongAttackReady(tick + 1)
+                ? MatchSimulation.INPUT_SPECIAL
+                : MatchSimulation.INPUT_ATTACK;
+        }
+        return input;
+    }
+}
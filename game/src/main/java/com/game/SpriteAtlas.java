@@ -0,0 +1,158 @@
+package com.game;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Alle Sprites in einem einzigen Bild, schon in Anzeigegröße.
+ * Jeder Kämpfer zeigt nur seinen Ausschnitt davon - eine Textur für alle,
+ * und beim Zeichnen muss nichts mehr herunterskaliert werden.
+ *
+ * Gepackt wird zeilenweise ("Regal"-Verfahren): Sprites nebeneinander, bis die Zeile voll ist,
+ * die höchste bestimmt die Zeilenhöhe. Bei lauter gleich großen Sprites ist das ein sauberes Raster.
+ */
+public final class SpriteAtlas {
+    /** Breiter wird der Atlas nicht, danach geht es in die nächste Zeile */
+    private static final int MAX_WIDTH = 2048;
+    private static final int MAGIC = 0x41544C53; // "ATLS"
+    private static final int VERSION = 1;
+
+    private final Image image;
+    private final Map<String, Rectangle2D> regions;
+
+    private SpriteAtlas(Image image, Map<String, Rectangle2D> regions) {
+        this.image = image;
+        this.regions = regions;
+    }
+
+    /**
+     * Packt die Sprites in einen Atlas.
+     * @param sprites Name -> Bild, schon in der Größe, in der es angezeigt wird
+     */
+    public static SpriteAtlas pack(Map<String, Image> sprites) {
+        Map<String, Rectangle2D> regions = new LinkedHashMap<>();
+        int x = 0;
+        int y = 0;
+        int rowHeight = 0;
+        int width = 0;
+        for (Map.Entry<String, Image> sprite : sprites.entrySet()) {
+            int w = (int) sprite.getValue().getWidth();
+            int h = (int) sprite.getValue().getHeight();
+            if (x > 0 && x + w > MAX_WIDTH) {
+                x = 0;
+                y += rowHeight;
+                rowHeight = 0;
+            }
+            regions.put(sprite.getKey(), new Rectangle2D(x, y, w, h));
+            x += w;
+            width = Math.max(width, x);
+            rowHeight = Math.max(rowHeight, h);
+        }
+        int height = y + rowHeight;
+
+        WritableImage atlas = new WritableImage(Math.max(1, width), Math.max(1, height));
+        for (Map.Entry<String, Image> sprite : sprites.entrySet()) {
+            Rectangle2D region = regions.get(sprite.getKey());
+            int w = (int) region.getWidth();
+            int h = (int) region.getHeight();
+            int[] pixels = new int[w * h];
+            sprite.getValue().getPixelReader().getPixels(0, 0, w, h, PixelFormat.getIntArgbInstance(), pixels, 0, w);
+            atlas.getPixelWriter().setPixels((int) region.getMinX(), (int) region.getMinY(), w, h,
+                PixelFormat.getIntArgbInstance(), pixels, 0, w);
+        }
+        return new SpriteAtlas(atlas, regions);
+    }
+
+    /**
+     * Das gemeinsame Bild aller Sprites.
+     */
+    public Image getImage() {
+        return image;
+    }
+
+    /**
+     * Ausschnitt eines Sprites im Atlas, null wenn es ihn nicht gibt.
+     */
+    public Rectangle2D getRegion(String name) {
+        return regions.get(name);
+    }
+
+    /**
+     * Speichert den Atlas als Cache-Datei, damit der nächste Start nichts dekodieren und skalieren muss.
+     * Wird erst in eine Temp-Datei geschrieben und dann umbenannt.
+     * @param key Prüfsumme der Quellbilder - ändert sich eins, passt der Cache nicht mehr
+     */
+    public void write(Path file, long key) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new DeflaterOutputStream(Files.newOutputStream(temp))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(key);
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeInt(regions.size());
+            for (Map.Entry<String, Rectangle2D> region : regions.entrySet()) {
+                out.writeUTF(region.getKey());
+                out.writeInt((int) region.getValue().getMinX());
+                out.writeInt((int) region.getValue().getMinY());
+                out.writeInt((int) region.getValue().getWidth());
+                out.writeInt((int) region.getValue().getHeight());
+            }
+            int[] pixels = new int[width * height];
+            image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+            ByteBuffer bytes = ByteBuffer.allocate(pixels.length * 4);
+            bytes.asIntBuffer().put(pixels);
+            out.write(bytes.array());
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Lädt einen gespeicherten Atlas.
+     * @return null wenn es keinen gibt oder er zu anderen Quellbildern gehört
+     */
+    public static SpriteAtlas read(Path file, long key) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new InflaterInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != key) {
+                return null;
+            }
+            int width = in.readInt();
+            int height = in.readInt();
+            int count = in.readInt();
+            Map<String, Rectangle2D> regions = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                regions.put(in.readUTF(), new Rectangle2D(in.readInt(), in.readInt(), in.readInt(), in.readInt()));
+            }
+            byte[] bytes = new byte[width * height * 4];
+            in.readFully(bytes);
+            int[] pixels = new int[width * height];
+            ByteBuffer.wrap(bytes).asIntBuffer().get(pixels);
+            WritableImage atlas = new WritableImage(width, height);
+            atlas.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+            return new SpriteAtlas(atlas, regions);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.game;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Rechnet die Varianten eines Sprites einmal beim Laden aus:
+ * grüne Umrandung, Angriffs-Färbung und halb durchsichtig nach einem Treffer.
+ * Vorher waren das live DropShadow/ColorAdjust-Effekte, für die JavaFX jeden Kämpfer
+ * jedes Bild extra offscreen rendern musste - jetzt wird nur noch der Ausschnitt getauscht.
+ *
+ * Gerechnet wird direkt auf den Pixeln (ARGB), das geht auf jedem Thread.
+ */
+public final class SpriteVariants {
+    /** Die Zustände, für die es ein eigenes Bild gibt */
+    public enum Variant { NORMAL, ATTACK, HIT }
+
+    /** Wird erhöht, wenn sich das Aussehen ändert - damit der Sprite-Cache neu gebaut wird */
+    public static final int VERSION = 1;
+    /** So weit reicht die Umrandung über das Bild hinaus - jede Variante hat rundum so viel Rand */
+    public static final int PADDING = 10;
+    /** Bis hierhin ist die Umrandung voll deckend, danach läuft sie aus (wie spread 0.8 beim DropShadow) */
+    private static final double SOLID = 0.8 * PADDING;
+    private static final int OUTLINE_RGB = 0x00FF00;
+    /** Ab dieser Deckkraft zählt ein Pixel zum Umriss */
+    private static final int OPAQUE = 128;
+    private static final double HIT_ALPHA = 0.5;
+
+    private SpriteVariants() {}
+
+    /**
+     * Welche Variante ein Kämpfer gerade zeigt: Treffer geht vor Angriff.
+     */
+    public static Variant of(Fighter fighter, long tick) {
+        if (fighter.isHitFlashing(tick)) {
+            return Variant.HIT;
+        }
+        return fighter.canAttack() ? Variant.NORMAL : Variant.ATTACK;
+    }
+
+    /**
+     * Alle Varianten eines Sprites, jeweils mit {@link #PADDING} Rand rundum.
+     */
+    public static Map<Variant, Image> bake(Image sprite) {
+        int width = (int) sprite.getWidth();
+        int height = (int) sprite.getHeight();
+        int[] source = new int[width * height];
+        sprite.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), source, 0, width);
+
+        int paddedWidth = width + 2 * PADDING;
+        int paddedHeight = height + 2 * PADDING;
+        int[] padded = new int[paddedWidth * paddedHeight];
+        for (int y = 0; y < height; y++) {
+            System.arraycopy(source, y * width, padded, (y + PADDING) * paddedWidth + PADDING, width);
+        }
+        double[] glow = outline(padded, paddedWidth, paddedHeight);
+
+        Map<Variant, Image> variants = new EnumMap<>(Variant.class);
+        int[] normal = composite(padded, glow, false);
+        variants.put(Variant.NORMAL, image(normal, paddedWidth, paddedHeight));
+        variants.put(Variant.ATTACK, image(composite(padded, glow, true), paddedWidth, paddedHeight));
+        variants.put(Variant.HIT, image(fade(normal, HIT_ALPHA), paddedWidth, paddedHeight));
+        return variants;
+    }
+
+    /**
+     * Deckkraft der Umrandung pro Pixel: voll bis {@link #SOLID} Pixel Abstand zum Umriss,
+     * dann linear bis {@link #PADDING} auslaufend.
+     * Der Abstand kommt aus einer Distanztransformation in zwei Durchgängen (Chamfer) - O(Pixel).
+     */
+    private static double[] outline(int[] pixels, int width, int height) {
+        double diagonal = Math.sqrt(2);
+        double[] distance = new double[pixels.length];
+        for (int i = 0; i < pixels.length; i++) {
+            distance[i] = (pixels[i] >>> 24) >= OPAQUE ? 0 : Double.MAX_VALUE / 2;
+        }
+        // Forward pass: top-left neighbours
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int i = y * width + x;
+                double d = distance[i];
+                if (x > 0) d = Math.min(d, distance[i - 1] + 1);
+                if (y > 0) {
+                    d = Math.min(d, distance[i - width] + 1);
+                    if (x > 0) d = Math.min(d, distance[i - width - 1] + diagonal);
+                    if (x < width - 1) d = Math.min(d, distance[i - width + 1] + diagonal);
+                }
+                distance[i] = d;
+            }
+        }
+        // Backward pass: bottom-right neighbours
+        for (int y = height - 1; y >= 0; y--) {
+            for (int x = width - 1; x >= 0; x--) {
+                int i = y * width + x;
+                double d = distance[i];
+                if (x < width - 1) d = Math.min(d, distance[i + 1] + 1);
+                if (y < height - 1) {
+                    d = Math.min(d, distance[i + width] + 1);
+                    if (x < width - 1) d = Math.min(d, distance[i + width + 1] + diagonal);
+                    if (x > 0) d = Math.min(d, distance[i + width - 1] + diagonal);
+                }
+                distance[i] = d;
+            }
+        }
+
+        double[] glow = new double[pixels.length];
+        for (int i = 0; i < glow.length; i++) {
+            double d = distance[i];
+            glow[i] = d <= SOLID ? 1 : Math.max(0, 1 - (d - SOLID) / (PADDING - SOLID));
+        }
+        return glow;
+    }
+
+    /**
+     * Legt das Bild über die Umrandung, auf Wunsch mit voller Sättigung (Angriff).
+     */
+    private static int[] composite(int[] pixels, double[] glow, boolean saturate) {
+        int[] result = new int[pixels.length];
+        for (int i = 0; i < pixels.length; i++) {
+            int argb = pixels[i];
+            double alpha = (argb >>> 24) / 255.0;
+            int r = (argb >> 16) & 0xFF;
+            int g = (argb >> 8) & 0xFF;
+            int b = argb & 0xFF;
+            int max = Math.max(r, Math.max(g, b));
+            int min = Math.min(r, Math.min(g, b));
+            if (saturate && max > min) {
+                // HSB saturation to 1: hue and brightness stay, the smallest channel drops to 0
+                r = max * (r - min) / (max - min);
+                g = max * (g - min) / (max - min);
+                b = max * (b - min) / (max - min);
+            }
+            // Sprite "over" the outline
+            double under = glow[i] * (1 - alpha);
+            double outAlpha = alpha + under;
+            if (outAlpha <= 0) {
+                continue;
+            }
+            int outR = (int) Math.round((r * alpha + ((OUTLINE_RGB >> 16) & 0xFF) * under) / outAlpha);
+            int outG = (int) Math.round((g * alpha + ((OUTLINE_RGB >> 8) & 0xFF) * under) / outAlpha);
+            int outB = (int) Math.round((b * alpha + (OUTLINE_RGB & 0xFF) * under) / outAlpha);
+            result[i] = (int) Math.round(outAlpha * 255) << 24 | outR << 16 | outG << 8 | outB;
+        }
+        return result;
+    }
+
+    private static int[] fade(int[] pixels, double factor) {
+        int[] result = new int[pixels.length];
+        for (int i = 0; i < pixels.length; i++) {
+            int alpha = (int) Math.round((pixels[i] >>> 24) * factor);
+            result[i] = alpha << 24 | (pixels[i] & 0xFFFFFF);
+        }
+        return result;
+    }
+
+    private static Image image(int[] pixels, int width, int height) {
+        WritableImage image = new WritableImage(width, height);
+        image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        return image;
+    }
+}
@@ -0,0 +1,51 @@
+package com.game;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.PortUnreachableException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Netzwerkspiel über UDP.
+ * Der Kanal ist fest mit dem Gegner verbunden und nicht blockierend.
+ */
+public final class UdpTransport implements NetTransport {
+    private final DatagramChannel channel;
+
+    public UdpTransport(int localPort, InetSocketAddress remote) throws IOException {
+        channel = DatagramChannel.open();
+        try {
+            channel.bind(new InetSocketAddress(localPort));
+            channel.connect(remote);
+            channel.configureBlocking(false);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void send(byte[] data, int length) throws IOException {
+        try {
+            channel.write(ByteBuffer.wrap(data, 0, length));
+        } catch (PortUnreachableException e) {
+            // Opponent not listening yet - the packet is simply lost
+        }
+    }
+
+    @Override
+    public int receive(byte[] into) throws IOException {
+        try {
+            int read = channel.read(ByteBuffer.wrap(into));
+            return read > 0 ? read : -1;
+        } catch (PortUnreachableException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}